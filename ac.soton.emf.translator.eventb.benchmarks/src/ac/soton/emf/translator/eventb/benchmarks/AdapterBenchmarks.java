@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Guard;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachinePackage;
+import org.eventb.emf.core.context.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ac.soton.emf.translator.TranslationDescriptor;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Throughput of the hot paths of the Event-B translator adapter on synthetic models of several sizes.
+ * Run with the GC profiler (as BenchmarkMain does) to also see the allocation rate of each operation.
+ * 
+ * The models are a machine that refines a machine of the same size and sees a context of the same size.
+ * The adapter is initialised for the refinement once per trial, so the operations other than initialiseAdapter
+ * measure the steady state of a translation run (with its indexes built).
+ * getPos is measured on the invariants of the refinement, which are not in placement order so that the placement index
+ * scans them, and on those of a placed machine, which are in placement order so that the placement index searches them.
+ * 
+ * @author cfs
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdapterBenchmarks {
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int size;
+
+	private BenchmarkAdapter adapter;
+	private Machine refinement;
+	private Machine placed;
+	private Invariant newInvariant;
+	private Invariant existingInvariant;
+	private Invariant equivalentInvariant;
+	private TranslationDescriptor duplicateInvariant;
+	private TranslationDescriptor seenAxiom;
+	private TranslationDescriptor inheritedGuard;
+	private TranslationDescriptor newGuard;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Context context = SyntheticModels.context("c0", size);
+		Machine abstractMachine = SyntheticModels.machine("m0", size);
+		refinement = SyntheticModels.refinement("m1", size, abstractMachine, context);
+		adapter = new BenchmarkAdapter();
+		// the indexes are only kept in a context that is ended by whoever drives the translation
+		TranslationContext.begin();
+		adapter.initialiseAdapter(refinement);
+		placed = SyntheticModels.placedMachine("m2", size, "m1");
+
+		// a generated invariant to be placed in the middle of the priorities
+		newInvariant = Make.invariant("new_inv", "new_v : NAT", "");
+		adapter.setGeneratedBy(newInvariant, SyntheticModels.TRANSLATOR_ID+"::m1_ext0");
+		adapter.setPriority(newInvariant, 2);
+
+		int middle = size / 2;
+		existingInvariant = refinement.getInvariants().get(middle);
+		equivalentInvariant = Make.invariant("inv_copy", "  v"+middle+"  : NAT ", "");
+		duplicateInvariant = Make.descriptor(refinement, MachinePackage.Literals.MACHINE__INVARIANTS, equivalentInvariant, null, 1, null);
+		seenAxiom = Make.descriptor(refinement, MachinePackage.Literals.MACHINE__INVARIANTS,
+				Make.invariant("inv_axm", "c"+middle+" : NAT", ""), null, 1, null);
+
+		Event event = refinement.getEvents().get(refinement.getEvents().size() / 2);
+		Guard abstractGuard = event.getRefines().get(0).getGuards().get(5);
+		inheritedGuard = Make.descriptor(event, MachinePackage.Literals.EVENT__GUARDS,
+				Make.guard(abstractGuard.getName(), abstractGuard.getPredicate(), ""), null, 1, null);
+		newGuard = Make.descriptor(event, MachinePackage.Literals.EVENT__GUARDS,
+				Make.guard("new_grd", "new_v > 0", ""), null, 1, null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TranslationContext.end();
+	}
+
+	@Benchmark
+	public int getPosUnsorted() {
+		return adapter.getPos(refinement.getInvariants(), newInvariant);
+	}
+
+	@Benchmark
+	public int getPosSorted() {
+		return adapter.getPos(placed.getInvariants(), newInvariant);
+	}
+
+	@Benchmark
+	public boolean outputFilterDuplicateInvariant() {
+		return adapter.outputFilter(duplicateInvariant);
+	}
+
+	@Benchmark
+	public boolean outputFilterInvariantInScope() {
+		return adapter.outputFilter(seenAxiom);
+	}
+
+	@Benchmark
+	public boolean outputFilterInheritedGuard() {
+		return adapter.outputFilter(inheritedGuard);
+	}
+
+	@Benchmark
+	public boolean outputFilterNewGuard() {
+		return adapter.outputFilter(newGuard);
+	}
+
+	@Benchmark
+	public boolean constraintFilter() {
+		return adapter.constraintFilter(refinement, newInvariant);
+	}
+
+	@Benchmark
+	public boolean match() {
+		return adapter.match(existingInvariant, equivalentInvariant);
+	}
+
+	@Benchmark
+	public BenchmarkAdapter initialiseAdapter() {
+		adapter.initialiseAdapter(refinement);
+		return adapter;
+	}
+}
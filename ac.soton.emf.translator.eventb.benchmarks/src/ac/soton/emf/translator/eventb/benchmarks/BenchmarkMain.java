@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the adapter benchmarks headless (no workspace or OSGi framework is needed),
+ * with the GC profiler so that the allocation rate is reported alongside the throughput.
+ * Any JMH command line options (e.g. -p size=10,1000) are passed on.
+ * 
+ * @author cfs
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.include(AdapterBenchmarks.class.getName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
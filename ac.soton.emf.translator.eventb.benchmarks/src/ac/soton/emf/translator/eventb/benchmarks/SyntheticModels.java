@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.benchmarks;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.Attribute;
+import org.eventb.emf.core.AttributeType;
+import org.eventb.emf.core.CoreFactory;
+import org.eventb.emf.core.CorePackage;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.context.Context;
+import org.eventb.emf.core.impl.AbstractExtensionImpl;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+
+import ac.soton.emf.translator.configuration.AttributeIdentifiers;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Builds synthetic, in-memory Event-B models for the benchmarks.
+ * The models are not in a resource or a workspace.
+ * 
+ * A machine of a given size has that many variables and invariants, a tenth as many events 
+ * (each with ten guards and ten actions) and a hundredth as many extensions.
+ * Every other invariant is marked as generated by one of the extensions, with a placement priority,
+ * so the invariants are not in placement order.
+ * A placed machine has only invariants, all generated and in placement order.
+ * 
+ * @author cfs
+ *
+ */
+final class SyntheticModels {
+
+	/**
+	 * the basic translation ID used for the generated elements
+	 */
+	static final String TRANSLATOR_ID = "benchmarks";
+
+	/**
+	 * A concrete extension class, since AbstractExtension has none
+	 */
+	static final EClass EXTENSION_CLASS;
+
+	static {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("benchmarks");
+		ePackage.setNsPrefix("benchmarks");
+		ePackage.setNsURI("http://soton.ac.uk/models/eventb/translator/benchmarks");
+		EXTENSION_CLASS = EcoreFactory.eINSTANCE.createEClass();
+		EXTENSION_CLASS.setName("SyntheticExtension");
+		EXTENSION_CLASS.getESuperTypes().add(CorePackage.Literals.ABSTRACT_EXTENSION);
+		ePackage.getEClassifiers().add(EXTENSION_CLASS);
+	}
+
+	static final class SyntheticExtension extends AbstractExtensionImpl {
+		@Override
+		protected EClass eStaticClass() {
+			return EXTENSION_CLASS;
+		}
+	}
+
+	private SyntheticModels() {
+	}
+
+	/**
+	 * @param name
+	 * @param size - the number of axioms
+	 * @return a context with the given number of axioms
+	 */
+	static Context context(String name, int size) {
+		Context context = Make.context(name, "");
+		for (int i = 0; i < size; i++) {
+			context.getAxioms().add(Make.axiom("axm"+i, "c"+i+" : NAT", ""));
+		}
+		return context;
+	}
+
+	/**
+	 * @param name
+	 * @param size
+	 * @return a machine of the given size
+	 */
+	static Machine machine(String name, int size) {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName(name);
+		int extensions = Math.max(1, size / 100);
+		for (int i = 0; i < extensions; i++) {
+			AbstractExtension extension = new SyntheticExtension();
+			extension.setExtensionId(name+"_ext"+i);
+			machine.getExtensions().add(extension);
+		}
+		for (int i = 0; i < size; i++) {
+			machine.getVariables().add(Make.variable("v"+i, ""));
+			Invariant invariant = Make.invariant("inv"+i, "v"+i+" : NAT", "");
+			if (i % 2 == 0) {
+				generated(invariant, TRANSLATOR_ID+"::"+name+"_ext"+(i % extensions), (i / 2) % 5);
+			}
+			machine.getInvariants().add(invariant);
+		}
+		for (int i = 0; i < Math.max(1, size / 10); i++) {
+			Event event = Make.event("evt"+i, "");
+			for (int j = 0; j < 10; j++) {
+				event.getGuards().add(Make.guard("grd"+j, "v"+j+" > "+i, ""));
+				event.getActions().add(Make.action("act"+j, "v"+j+" := v"+j+" + "+i, ""));
+			}
+			machine.getEvents().add(event);
+		}
+		return machine;
+	}
+
+	/**
+	 * Makes a machine whose invariants are all generated by the extensions of another machine (of the same size)
+	 * and are in placement order: by priority from 1 to 5 and then in the order of the extensions.
+	 * 
+	 * @param name
+	 * @param size - the number of invariants
+	 * @param extensionOwner - the name of the machine whose extensions generated the invariants
+	 * @return the machine
+	 */
+	static Machine placedMachine(String name, int size, String extensionOwner) {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName(name);
+		int extensions = Math.max(1, size / 100);
+		for (int i = 0; i < size; i++) {
+			Invariant invariant = Make.invariant("inv"+i, "v"+i+" : NAT", "");
+			generated(invariant, TRANSLATOR_ID+"::"+extensionOwner+"_ext"+(int) ((long) i * extensions / size), 1 + (int) ((long) i * 5 / size));
+			machine.getInvariants().add(invariant);
+		}
+		return machine;
+	}
+
+	/**
+	 * Makes a refinement of the given machine that sees the given context.
+	 * Each of its events extends the event of the same name in the abstract machine.
+	 * 
+	 * @param name
+	 * @param size
+	 * @param abstractMachine
+	 * @param context
+	 * @return the refinement
+	 */
+	static Machine refinement(String name, int size, Machine abstractMachine, Context context) {
+		Machine machine = machine(name, size);
+		machine.getRefines().add(abstractMachine);
+		machine.getRefinesNames().add(abstractMachine.getName());
+		machine.getSees().add(context);
+		machine.getSeesNames().add(context.getName());
+		for (Event event : machine.getEvents()) {
+			for (Event abstractEvent : abstractMachine.getEvents()) {
+				if (abstractEvent.getName().equals(event.getName())) {
+					event.setExtended(true);
+					event.getRefines().add(abstractEvent);
+					event.getRefinesNames().add(abstractEvent.getName());
+				}
+			}
+		}
+		return machine;
+	}
+
+	/**
+	 * marks an element as generated, in the same way as the adapter does
+	 */
+	static void generated(EventBElement element, String translationId, int priority) {
+		Attribute id = CoreFactory.eINSTANCE.createAttribute();
+		id.setValue(translationId);
+		id.setType(AttributeType.STRING);
+		element.getAttributes().put(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY, id);
+		Attribute placement = CoreFactory.eINSTANCE.createAttribute();
+		placement.setValue(priority);
+		placement.setType(AttributeType.INTEGER);
+		element.getAttributes().put(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY, placement);
+	}
+}
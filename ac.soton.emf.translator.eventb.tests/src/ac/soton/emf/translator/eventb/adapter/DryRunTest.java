@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static ac.soton.emf.translator.eventb.adapter.TestModels.extension;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.generated;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.translationId;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Guard;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.MachinePackage;
+import org.eventb.emf.core.machine.Variable;
+import org.junit.After;
+import org.junit.Test;
+
+import ac.soton.emf.translator.TranslationDescriptor;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that a dry run reports the changes that a translation then makes: the same removals,
+ * the same additions at the same positions and the same descriptors filtered out.
+ * The translator is emulated: the elements that wasGeneratedBy finds are removed, then each descriptor
+ * that outputFilter lets through is applied, placing the values that have no before element with getPos.
+ *
+ * @author cfs
+ *
+ */
+public class DryRunTest {
+
+	private static final String TRANSLATED = "ext1";
+
+	/**
+	 * The changes made, or reported, by a translation
+	 */
+	private static final class Changes implements DryRun.Listener {
+		final Set<Object> removed = Collections.newSetFromMap(new IdentityHashMap<Object,Boolean>());
+		final Map<TranslationDescriptor,Integer> added = new IdentityHashMap<TranslationDescriptor,Integer>();
+		final Set<TranslationDescriptor> filtered = Collections.newSetFromMap(new IdentityHashMap<TranslationDescriptor,Boolean>());
+
+		@Override
+		public void changed(DryRun.Change change) {
+			switch (change.getKind()) {
+			case ADD:
+				added.put(change.getDescriptor(), change.getPosition());
+				break;
+			case FILTER:
+				filtered.add(change.getDescriptor());
+				break;
+			default:
+				removed.add(change.getElement());
+			}
+		}
+	}
+
+	private final Random random = new Random(20261018L);
+
+	@After
+	public void tearDown() {
+		DryRun.end();
+		TranslationContext.end();
+	}
+
+	@Test
+	public void regeneratedElementsAreAddedAgain() {
+		Machine machine = machine();
+		Invariant u0 = Make.invariant("u0", "x : NAT", "");
+		Invariant g1 = Make.invariant("g1", "y : NAT", "");
+		generated(g1, translationId(TRANSLATED), 1);
+		Invariant g2 = Make.invariant("g2", "z : NAT", "");
+		generated(g2, translationId(TRANSLATED), 2);
+		Invariant u3 = Make.invariant("u3", "w : NAT", "");
+		Invariant g4 = Make.invariant("g4", "q : NAT", "");
+		generated(g4, translationId("ext0"), 1);
+		machine.getInvariants().add(g4);
+		machine.getInvariants().add(g1);
+		machine.getInvariants().add(g2);
+		machine.getInvariants().add(u0);
+		machine.getInvariants().add(u3);
+		Variable x = Make.variable("x", "");
+		Variable y = Make.variable("y", "");
+		generated(y, translationId(TRANSLATED), 1);
+		machine.getVariables().add(x);
+		machine.getVariables().add(y);
+		Event event = Make.event("evt", "");
+		Guard grd = Make.guard("grd", "y > 0", "");
+		generated(grd, translationId(TRANSLATED), 1);
+		event.getGuards().add(Make.guard("user", "x > 0", ""));
+		event.getGuards().add(grd);
+		machine.getEvents().add(event);
+
+		List<TranslationDescriptor> descriptors = new ArrayList<TranslationDescriptor>();
+		descriptors.add(invariant(machine, "y : NAT", 1));
+		descriptors.add(invariant(machine, "x : NAT", 1));
+		descriptors.add(invariant(machine, "q : NAT", 1));
+		descriptors.add(invariant(machine, "r : NAT", 3));
+		descriptors.add(invariant(machine, "s : NAT", 1));
+		descriptors.add(invariant(machine, "y:NAT", 2));
+		descriptors.add(Make.removeDescriptor(machine, MachinePackage.Literals.MACHINE__INVARIANTS, u3));
+		descriptors.add(invariant(machine, "w : NAT", 2));
+		descriptors.add(descriptor(machine, MachinePackage.Literals.MACHINE__VARIABLES, Make.variable("y", ""), 1));
+		descriptors.add(descriptor(machine, MachinePackage.Literals.MACHINE__VARIABLES, Make.variable("x", ""), 1));
+		descriptors.add(descriptor(event, MachinePackage.Literals.EVENT__GUARDS, Make.guard("grd", "y > 0", ""), 1));
+		assertSameChanges(machine, descriptors);
+	}
+
+	@Test
+	public void randomTranslations() {
+		for (int n = 0; n < 200; n++) {
+			Machine machine = machine();
+			List<Invariant> invariants = new ArrayList<Invariant>();
+			for (int i = 0, count = random.nextInt(20); i < count; i++) {
+				Invariant invariant = Make.invariant("inv"+i, randomPredicate(), "");
+				if (random.nextInt(3) > 0) generated(invariant, translationId("ext"+random.nextInt(3)), randomPriority());
+				machine.getInvariants().add(invariant);
+				invariants.add(invariant);
+			}
+			List<TranslationDescriptor> descriptors = new ArrayList<TranslationDescriptor>();
+			for (int i = 0, count = random.nextInt(20); i < count; i++) {
+				if (!invariants.isEmpty() && random.nextInt(6) == 0) {
+					descriptors.add(Make.removeDescriptor(machine, MachinePackage.Literals.MACHINE__INVARIANTS, invariants.get(random.nextInt(invariants.size()))));
+				} else {
+					descriptors.add(invariant(machine, randomPredicate(), randomPriority()));
+				}
+			}
+			assertSameChanges(machine, descriptors);
+		}
+	}
+
+	/**
+	 * Does a dry run and then the translation, and checks that the dry run reported the changes made by the translation
+	 */
+	private static void assertSameChanges(Machine machine, List<TranslationDescriptor> descriptors) {
+		Changes reported = new Changes();
+		DryRun.begin(URI.createURI("platform:/resource/p/m.bum"), reported);
+		try {
+			translate(machine, descriptors);
+		} finally {
+			DryRun.end();
+			TranslationContext.end();
+		}
+		Changes made;
+		try {
+			made = translate(machine, descriptors);
+		} finally {
+			TranslationContext.end();
+		}
+		assertEquals("removed", made.removed, reported.removed);
+		assertEquals("added", made.added, reported.added);
+		assertEquals("filtered", made.filtered, reported.filtered);
+	}
+
+	/**
+	 * translates the extension TRANSLATED of the machine into the given descriptors, as the translator does
+	 *
+	 * @return the changes made to the machine
+	 */
+	@SuppressWarnings("unchecked")
+	private static Changes translate(Machine machine, List<TranslationDescriptor> descriptors) {
+		Changes made = new Changes();
+		EventBTranslatorAdapter adapter = new EventBTranslatorAdapter();
+		TranslationContext.begin();
+		adapter.initialiseAdapter(machine);
+		List<EObject> previous = new ArrayList<EObject>();
+		for (Iterator<EObject> it = machine.eAllContents(); it.hasNext(); ) {
+			EObject element = it.next();
+			if (element instanceof EventBElement && adapter.wasGeneratedBy(element, translationId(TRANSLATED))) previous.add(element);
+		}
+		for (EObject element : previous) {
+			EcoreUtil.remove(element);
+			made.removed.add(element);
+		}
+		for (TranslationDescriptor descriptor : descriptors) {
+			if (!adapter.outputFilter(descriptor)) {
+				if (!descriptor.remove) made.filtered.add(descriptor);
+				continue;
+			}
+			List<Object> list = (List<Object>) descriptor.parent.eGet(descriptor.feature);
+			if (descriptor.remove) {
+				if (list.remove(descriptor.value)) made.removed.add(descriptor.value);
+			} else {
+				int pos = descriptor.before != null && list.contains(descriptor.before)? list.indexOf(descriptor.before) : adapter.getPos(list, descriptor.value);
+				list.add(pos, descriptor.value);
+				made.added.put(descriptor, pos);
+			}
+		}
+		return made;
+	}
+
+	private static Machine machine() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName("m");
+		for (int i = 0; i < 3; i++) {
+			machine.getExtensions().add(extension("ext"+i));
+		}
+		return machine;
+	}
+
+	private static TranslationDescriptor invariant(Machine machine, String predicate, int priority) {
+		return descriptor(machine, MachinePackage.Literals.MACHINE__INVARIANTS, Make.invariant("inv", predicate, ""), priority);
+	}
+
+	/**
+	 * @return a descriptor of a value generated by TRANSLATED with the given priority
+	 */
+	private static TranslationDescriptor descriptor(EventBElement parent, EStructuralFeature feature, EventBElement value, int priority) {
+		generated(value, translationId(TRANSLATED), priority);
+		return Make.descriptor(parent, feature, value, null, priority, null);
+	}
+
+	private String randomPredicate() {
+		return "v"+random.nextInt(8)+" : NAT";
+	}
+
+	private int randomPriority() {
+		return random.nextInt(5) - 2;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static ac.soton.emf.translator.eventb.adapter.TestModels.extension;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.translationId;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.MachinePackage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that an extension whose generated elements are up to date is not translated again in incremental mode,
+ * unless it also writes to another component, whose generated elements are not checked.
+ *
+ * @author cfs
+ *
+ */
+public class ExtensionFingerprintsTest {
+
+	private Machine machine;
+	private AbstractExtension extension;
+	private EventBTranslatorAdapter adapter;
+	private int count = 0;
+
+	@Before
+	public void setUp() {
+		machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName("m");
+		extension = extension("ext0");
+		machine.getExtensions().add(extension);
+		adapter = new EventBTranslatorAdapter() {
+			@Override
+			protected boolean isIncremental() {
+				return true;
+			}
+		};
+	}
+
+	@After
+	public void tearDown() {
+		TranslationContext.end();
+	}
+
+	@Test
+	public void unchangedExtensionIsNotTranslatedAgain() {
+		start();
+		machine.getInvariants().add(generate());
+		start();
+		assertFalse(adapter.inputFilter(extension, translationId("ext0")));
+	}
+
+	@Test
+	public void changedExtensionIsTranslatedAgain() {
+		start();
+		machine.getInvariants().add(generate());
+		machine.getExtensions().add(extension("ext1"));
+		extension.eSet(TestModels.EXTENSION_REFERENCE, machine.getExtensions().get(1));
+		start();
+		assertTrue(adapter.inputFilter(extension, translationId("ext0")));
+	}
+
+	@Test
+	public void extensionWritingToAnotherComponentIsTranslatedAgain() {
+		Machine other = MachineFactory.eINSTANCE.createMachine();
+		other.setName("other");
+		start();
+		machine.getInvariants().add(generate());
+		Invariant elsewhere = generate();
+		adapter.outputFilter(Make.descriptor(other, MachinePackage.Literals.MACHINE__INVARIANTS, elsewhere, null, 1, extension));
+		other.getInvariants().add(elsewhere);
+		machine.getInvariants().add(generate());
+		start();
+		assertTrue(adapter.inputFilter(extension, translationId("ext0")));
+	}
+
+	/**
+	 * starts a new translation run of the machine
+	 */
+	private void start() {
+		TranslationContext.begin();
+		adapter.initialiseAdapter(machine);
+	}
+
+	/**
+	 * @return a new invariant generated from the extension
+	 */
+	private Invariant generate() {
+		Invariant invariant = Make.invariant("inv"+count, "v"+count+" : NAT", "");
+		count++;
+		adapter.setGeneratedBy(invariant, translationId("ext0"));
+		return invariant;
+	}
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static ac.soton.emf.translator.eventb.adapter.TestModels.extension;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.refer;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.translationId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.junit.Test;
+
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that ExtensionOrder gives every translation ID the position that the map built by the original linear algorithm gave it.
+ *
+ * @author cfs
+ *
+ */
+public class ExtensionOrderTest {
+
+	@Test
+	public void extensionsAreNumberedInContainmentOrder() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.getExtensions().add(extension("a"));
+		Event event = Make.event("evt", "");
+		event.getExtensions().add(extension("b"));
+		machine.getEvents().add(event);
+		AbstractExtension c = extension("c");
+		c.getExtensions().add(extension("d"));
+		machine.getExtensions().add(c);
+		assertSamePositions(machine, "a", "b", "c", "d", "unknown");
+	}
+
+	@Test
+	public void referencedExtensionFollowsTheReferringOne() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		AbstractExtension a = extension("a");
+		AbstractExtension b = extension("b");
+		AbstractExtension c = extension("c");
+		machine.getExtensions().add(a);
+		machine.getExtensions().add(b);
+		machine.getExtensions().add(c);
+		// the reference is typed with an interface of the extension class, not with AbstractExtension
+		refer(c, a);
+		refer(a, b);
+		assertSamePositions(machine, "a", "b", "c", "unknown");
+	}
+
+	@Test
+	public void extensionClassesCanBeCollected() throws InterruptedException {
+		WeakReference<EClass> eClass = new WeakReference<EClass>(dynamicExtensionClass());
+		for (int i = 0; i < 100 && eClass.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(eClass.get());
+	}
+
+	/**
+	 * @return a new class with one single valued reference, whose references have been looked up
+	 */
+	private static EClass dynamicExtensionClass() {
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName("DynamicExtension");
+		EReference reference = EcoreFactory.eINSTANCE.createEReference();
+		reference.setName("other");
+		reference.setEType(EcorePackage.Literals.EOBJECT);
+		eClass.getEStructuralFeatures().add(reference);
+		assertEquals(1, ExtensionOrder.extensionReferences(eClass).length);
+		assertEquals(reference, eClass.getEStructuralFeature(ExtensionOrder.extensionReferences(eClass)[0]));
+		return eClass;
+	}
+
+	@Test
+	public void referenceToExtensionOutsideTheComponentIsNumbered() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		AbstractExtension a = extension("a");
+		machine.getExtensions().add(a);
+		machine.getExtensions().add(extension("b"));
+		refer(a, extension("elsewhere"));
+		assertSamePositions(machine, "a", "b", "elsewhere", "unknown");
+	}
+
+	@Test
+	public void referenceToExtensionWithoutIdMovesTheEnd() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		AbstractExtension a = extension("a");
+		AbstractExtension b = extension("b");
+		machine.getExtensions().add(a);
+		machine.getExtensions().add(b);
+		refer(a, extension(null));
+		refer(b, extension(null));
+		assertSamePositions(machine, "a", "b", "unknown");
+	}
+
+	@Test
+	public void duplicateIdsKeepTheirFirstPosition() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.getExtensions().add(extension("a"));
+		machine.getExtensions().add(extension("b"));
+		AbstractExtension a = extension("a");
+		refer(a, extension("c"));
+		machine.getExtensions().add(a);
+		machine.getExtensions().add(extension(null));
+		assertSamePositions(machine, "a", "b", "c", "unknown");
+	}
+
+	@Test
+	public void randomModels() {
+		Random random = new Random(20261018L);
+		for (int n = 0; n < 500; n++) {
+			Machine machine = MachineFactory.eINSTANCE.createMachine();
+			List<AbstractExtension> extensions = new ArrayList<AbstractExtension>();
+			int count = 1 + random.nextInt(12);
+			for (int i = 0; i < count; i++) {
+				AbstractExtension extension = extension(random.nextInt(8) == 0? null : "x"+random.nextInt(10));
+				if (extensions.isEmpty() || random.nextBoolean()) {
+					machine.getExtensions().add(extension);
+				} else {
+					extensions.get(random.nextInt(extensions.size())).getExtensions().add(extension);
+				}
+				extensions.add(extension);
+			}
+			for (AbstractExtension extension : extensions) {
+				if (random.nextInt(3) == 0) {
+					refer(extension, random.nextInt(4) == 0? extension(random.nextInt(8) == 0? null : "y"+random.nextInt(4))
+							: extensions.get(random.nextInt(extensions.size())));
+				}
+			}
+			String[] ids = new String[15];
+			for (int i = 0; i < 10; i++) {
+				ids[i] = "x"+i;
+			}
+			for (int i = 0; i < 4; i++) {
+				ids[10+i] = "y"+i;
+			}
+			ids[14] = "unknown";
+			assertSamePositions(machine, ids);
+		}
+	}
+
+	private static void assertSamePositions(Machine machine, String... ids) {
+		Map<String,Integer> baseline = baseline(machine);
+		ExtensionOrder order = new ExtensionOrder();
+		order.build(machine);
+		assertEquals("end", baseline.size(), order.end());
+		for (String id : ids) {
+			Integer position = baseline.get(id);
+			assertEquals(id, position == null? baseline.size() : position.intValue(), order.positionOf(translationId(id)));
+		}
+		assertEquals(baseline.size(), order.positionOf("no separator"));
+		assertEquals(baseline.size(), order.positionOf(null));
+	}
+
+	/**
+	 * the map of extension IDs to positions built by the original linear algorithm
+	 */
+	private static Map<String,Integer> baseline(Machine machine) {
+		Map<String,Integer> extensionOrder = new HashMap<String,Integer>();
+		int i = 0;
+		for (Iterator<EObject> it = machine.eAllContents(); it.hasNext(); ) {
+			EObject ae = it.next();
+			if (!(ae instanceof AbstractExtension)) continue;
+			String id = ((AbstractExtension)ae).getExtensionId();
+			if (id != null && !extensionOrder.containsKey(id)) {
+				extensionOrder.put(id, i++);
+				for (EReference r : ae.eClass().getEReferences()) {
+					Object rae = ae.eGet(r);
+					if (rae instanceof AbstractExtension) {
+						id = ((AbstractExtension)rae).getExtensionId();
+						extensionOrder.put(id, i++);
+					}
+				}
+			}
+		}
+		return extensionOrder;
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eventb.emf.core.EventBNamedCommentedActionElement;
+import org.eventb.emf.core.EventBNamedCommentedElement;
+import org.eventb.emf.core.EventBNamedCommentedPredicateElement;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.MachinePackage;
+import org.junit.Test;
+
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that a MatchIndex finds a match for a value exactly when the original linear scan of the list with match would,
+ * as the list and the elements in it change.
+ *
+ * @author cfs
+ *
+ */
+public class MatchIndexTest {
+
+	private static final String[] PREDICATES = {"x : NAT", "x:NAT", " x :\tNAT ", "y : NAT", "x = y", "x=y", "y = x", null};
+
+	private static final String[] ACTIONS = {"x := x + 1", "x:=x+1", "x := y", "y := x", null};
+
+	private final Random random = new Random(20261018L);
+	private int count = 0;
+
+	@Test
+	public void invariants() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		MatchIndex index = new MatchIndex(machine, MachinePackage.Literals.MACHINE__INVARIANTS, false);
+		List<?> list = machine.getInvariants();
+		for (int i = 0; i < 200; i++) {
+			switch (random.nextInt(4)) {
+			case 0: case 1:
+				machine.getInvariants().add(Make.invariant(randomName(), randomPredicate(), ""));
+				break;
+			case 2:
+				if (!list.isEmpty()) machine.getInvariants().get(random.nextInt(list.size())).setPredicate(randomPredicate());
+				break;
+			default:
+				if (!list.isEmpty()) machine.getInvariants().remove(random.nextInt(list.size()));
+			}
+			assertSameMatch(index, list, Make.invariant(randomName(), randomPredicate(), ""));
+			assertSameMatch(index, list, Make.invariant(randomName(), true, randomPredicate(), ""));
+			assertSameMatch(index, list, Make.axiom(randomName(), randomPredicate(), ""));
+		}
+	}
+
+	@Test
+	public void predicatesOfAnyClass() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		MatchIndex index = new MatchIndex(machine, MachinePackage.Literals.MACHINE__INVARIANTS, true);
+		List<?> list = machine.getInvariants();
+		for (int i = 0; i < 200; i++) {
+			if (random.nextInt(3) > 0 || list.isEmpty()) {
+				machine.getInvariants().add(Make.invariant(randomName(), randomPredicate(), ""));
+			} else {
+				machine.getInvariants().remove(random.nextInt(list.size()));
+			}
+			EventBNamedCommentedPredicateElement axiom = Make.axiom(randomName(), randomPredicate(), "");
+			boolean expected = false;
+			for (Object element : list) {
+				expected |= stringEquivalent(((EventBNamedCommentedPredicateElement) element).getPredicate(), axiom.getPredicate());
+			}
+			assertEquals(expected, index.contains(axiom));
+		}
+	}
+
+	@Test
+	public void actions() {
+		Event event = Make.event("evt", "");
+		MatchIndex index = new MatchIndex(event, MachinePackage.Literals.EVENT__ACTIONS, false);
+		List<?> list = event.getActions();
+		for (int i = 0; i < 200; i++) {
+			switch (random.nextInt(4)) {
+			case 0: case 1:
+				event.getActions().add(Make.action(randomName(), randomAction(), ""));
+				break;
+			case 2:
+				if (!list.isEmpty()) event.getActions().get(random.nextInt(list.size())).setAction(randomAction());
+				break;
+			default:
+				if (!list.isEmpty()) event.getActions().remove(random.nextInt(list.size()));
+			}
+			assertSameMatch(index, list, Make.action(randomName(), randomAction(), ""));
+		}
+	}
+
+	@Test
+	public void names() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		MatchIndex index = new MatchIndex(machine, MachinePackage.Literals.MACHINE__VARIABLES, false);
+		List<?> list = machine.getVariables();
+		for (int i = 0; i < 200; i++) {
+			switch (random.nextInt(4)) {
+			case 0: case 1:
+				machine.getVariables().add(Make.variable(randomName(), ""));
+				break;
+			case 2:
+				if (!list.isEmpty()) machine.getVariables().get(random.nextInt(list.size())).setName(random.nextInt(8) == 0? null : randomName());
+				break;
+			default:
+				if (!list.isEmpty()) machine.getVariables().remove(random.nextInt(list.size()));
+			}
+			assertSameMatch(index, list, Make.variable(randomName(), ""));
+			assertSameMatch(index, list, Make.event(randomName(), ""));
+			assertSameMatch(index, list, randomName());
+		}
+	}
+
+	private static void assertSameMatch(MatchIndex index, List<?> list, Object value) {
+		boolean expected = false;
+		for (Object element : list) {
+			expected |= match(element, value);
+		}
+		assertEquals(String.valueOf(value), expected, index.contains(value));
+	}
+
+	private String randomName() {
+		return random.nextInt(3) == 0? "n"+(count++) : "n"+random.nextInt(5);
+	}
+
+	private String randomPredicate() {
+		return PREDICATES[random.nextInt(PREDICATES.length)];
+	}
+
+	private String randomAction() {
+		return ACTIONS[random.nextInt(ACTIONS.length)];
+	}
+
+	/**
+	 * the original match
+	 */
+	private static boolean match(Object el1, Object el2) {
+		if (el1.getClass()!=el2.getClass()) return false;
+		if (el1 instanceof EventBNamedCommentedPredicateElement){
+			return stringEquivalent(
+					((EventBNamedCommentedPredicateElement)el1).getPredicate(),
+					((EventBNamedCommentedPredicateElement)el2).getPredicate()
+					);
+		}else if (el1 instanceof EventBNamedCommentedActionElement){
+			return stringEquivalent(
+					((EventBNamedCommentedActionElement)el1).getAction(),
+					((EventBNamedCommentedActionElement)el2).getAction()
+					);
+		} else if (el1 instanceof EventBNamedCommentedElement){
+			String s1 = ((EventBNamedCommentedElement)el1).getName();
+			String s2 = ((EventBNamedCommentedElement)el2).getName();
+			return (s1 != null && s1.equals(s2));
+		} else if(el1 instanceof String && el2 instanceof String) {
+			return (el1 != null && el1.equals(el2));
+		} else return false;
+	}
+
+	private static boolean stringEquivalent(String s1, String s2) {
+		if (s1==null) return s2==null;
+		if (s2==null) return false;
+		return s1.replaceAll("\\s", "").equals(s2.replaceAll("\\s", ""));
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static ac.soton.emf.translator.eventb.adapter.TestModels.extension;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.generated;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.translationId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.EList;
+import org.eventb.emf.core.Attribute;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ac.soton.emf.translator.configuration.AttributeIdentifiers;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that getPos, which uses a PlacementIndex of the list, gives the position that the original linear scan of the list gave,
+ * both when the list is in placement order (binary search) and when it is not (linear fallback),
+ * and as the list and the priorities and translation IDs of its elements change.
+ *
+ * @author cfs
+ *
+ */
+public class PlacementIndexTest {
+
+	private static final int EXTENSIONS = 6;
+
+	private static final int[] PRIORITIES = {-3, -2, -1, 0, 1, 2, 3, 10, -10, EventBTranslatorAdapter.PRIORITY_LIMIT, -EventBTranslatorAdapter.PRIORITY_LIMIT};
+
+	/**
+	 * the positions of the extensions of the machine, as the original algorithm recorded them
+	 */
+	private static final Map<String,Integer> extensionOrder = new HashMap<String,Integer>();
+
+	static {
+		for (int i = 0; i < EXTENSIONS; i++) {
+			extensionOrder.put("ext"+i, i);
+		}
+	}
+
+	private final Random random = new Random(20261018L);
+	private Machine machine;
+	private EventBTranslatorAdapter adapter;
+	private int count = 0;
+
+	@Before
+	public void setUp() {
+		machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName("m");
+		for (int i = 0; i < EXTENSIONS; i++) {
+			machine.getExtensions().add(extension("ext"+i));
+		}
+		adapter = new EventBTranslatorAdapter();
+		TranslationContext.begin();
+		adapter.initialiseAdapter(machine);
+	}
+
+	@After
+	public void tearDown() {
+		TranslationContext.end();
+	}
+
+	@Test
+	public void insertingInPlacementOrder() {
+		EList<Invariant> list = machine.getInvariants();
+		for (int i = 0; i < 300; i++) {
+			Invariant invariant = randomInvariant();
+			int pos = assertSamePosition(list, invariant);
+			list.add(pos, invariant);
+		}
+	}
+
+	@Test
+	public void appendingOutOfOrder() {
+		EList<Invariant> list = machine.getInvariants();
+		for (int i = 0; i < 100; i++) {
+			list.add(randomInvariant());
+		}
+		for (int i = 0; i < 100; i++) {
+			Invariant invariant = randomInvariant();
+			int pos = assertSamePosition(list, invariant);
+			if (random.nextBoolean()) {
+				list.add(pos, invariant);
+			} else {
+				list.add(invariant);
+			}
+		}
+	}
+
+	@Test
+	public void changingPriorities() {
+		EList<Invariant> list = fill();
+		for (int i = 0; i < 100; i++) {
+			adapter.setPriority(list.get(random.nextInt(list.size())), randomPriority());
+			assertSamePosition(list, randomInvariant());
+		}
+	}
+
+	@Test
+	public void changingTranslationIds() {
+		EList<Invariant> list = fill();
+		for (int i = 0; i < 100; i++) {
+			adapter.setGeneratedBy(list.get(random.nextInt(list.size())), randomTranslationId());
+			assertSamePosition(list, randomInvariant());
+		}
+	}
+
+	@Test
+	public void removingAndMoving() {
+		EList<Invariant> list = fill();
+		while (!list.isEmpty()) {
+			if (random.nextBoolean()) {
+				list.remove(random.nextInt(list.size()));
+			} else {
+				list.move(random.nextInt(list.size()), random.nextInt(list.size()));
+				list.remove(random.nextInt(list.size()));
+			}
+			assertSamePosition(list, randomInvariant());
+		}
+	}
+
+	@Test
+	public void inAnUnmanagedContext() {
+		TranslationContext.end();
+		adapter.initialiseAdapter(machine);
+		EList<Invariant> list = fill();
+		for (int i = 0; i < 100; i++) {
+			adapter.setPriority(list.get(random.nextInt(list.size())), randomPriority());
+			assertSamePosition(list, randomInvariant());
+		}
+		// nothing is left watching the model, as nobody ends the context
+		assertTrue(machine.eAdapters().isEmpty());
+	}
+
+	@Test
+	public void outsideATranslation() throws Exception {
+		final EList<Invariant> list = fill();
+		final Invariant invariant = randomInvariant();
+		final int[] pos = new int[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				pos[0] = adapter.getPos(list, invariant);
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(baseline(list, invariant), pos[0]);
+	}
+
+	/**
+	 * @return the invariants of the machine, filled with elements placed by getPos
+	 */
+	private EList<Invariant> fill() {
+		EList<Invariant> list = machine.getInvariants();
+		for (int i = 0; i < 100; i++) {
+			Invariant invariant = randomInvariant();
+			list.add(adapter.getPos(list, invariant), invariant);
+		}
+		return list;
+	}
+
+	private int assertSamePosition(List<?> list, EventBElement element) {
+		int pos = adapter.getPos(list, element);
+		assertEquals(baseline(list, element), pos);
+		return pos;
+	}
+
+	/**
+	 * @return an invariant with a random translation ID and priority (either of which may be missing)
+	 */
+	private Invariant randomInvariant() {
+		Invariant invariant = Make.invariant("inv"+count, "v"+count+" : NAT", "");
+		count++;
+		generated(invariant, random.nextInt(5) == 0? null : randomTranslationId(), random.nextInt(5) == 0? null : randomPriority());
+		return invariant;
+	}
+
+	/**
+	 * @return the translation ID of one of the extensions or of an extension that is not in the machine
+	 */
+	private String randomTranslationId() {
+		return translationId("ext"+random.nextInt(EXTENSIONS+1));
+	}
+
+	private int randomPriority() {
+		return PRIORITIES[random.nextInt(PRIORITIES.length)];
+	}
+
+	/**
+	 * the position given by the original linear scan of the list
+	 */
+	private int baseline(List<?> list, EventBElement object) {
+		int pri = priority(object);
+		int pos = 0;
+		int xod = extensionPosition(object);
+		for (int i=0; i<list.size(); i++){
+			Object v = list.get(i);
+			if(v instanceof EventBElement){
+				int v_xod = extensionPosition((EventBElement) v);
+				int v_pri = priority((EventBElement) v);
+				if ((v_pri>0 && (pri<=0 || pri > v_pri )) || (v_pri < 1 && pri < v_pri ) || (v_pri==pri && v_xod<=xod)){
+					pos = i+1;
+				}
+			}
+		}
+		return pos;
+	}
+
+	private static int priority(EventBElement element) {
+		Attribute attribute = element.getAttributes().get(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY);
+		Integer pri = (Integer) (attribute==null? null : attribute.getValue());
+		return pri==null? 0 : pri;
+	}
+
+	private static int extensionPosition(EventBElement element) {
+		Attribute attribute = element.getAttributes().get(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
+		String translation_ID = attribute==null? null : (String) attribute.getValue();
+		if (translation_ID==null || !translation_ID.contains("::")) return extensionOrder.size();
+		Integer v_xod = extensionOrder.get(translation_ID.substring(translation_ID.lastIndexOf("::")+2));
+		return v_xod==null? extensionOrder.size() : v_xod;
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.Attribute;
+import org.eventb.emf.core.AttributeType;
+import org.eventb.emf.core.CoreFactory;
+import org.eventb.emf.core.CorePackage;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.impl.AbstractExtensionImpl;
+
+import ac.soton.emf.translator.configuration.AttributeIdentifiers;
+
+/**
+ * Builds the in-memory models used by the tests of the adapter.
+ *
+ * The extensions are instances of a dynamic extension class which, like the extension classes of real plug-ins,
+ * also implements an interface of its own and can refer to another extension through a reference typed with that interface.
+ *
+ * @author cfs
+ *
+ */
+final class TestModels {
+
+	/**
+	 * the basic translation ID used for the generated elements
+	 */
+	static final String TRANSLATOR_ID = "tests";
+
+	/**
+	 * an interface implemented by the test extensions (and not by AbstractExtension)
+	 */
+	static final EClass REFERABLE;
+
+	/**
+	 * the concrete extension class
+	 */
+	static final EClass EXTENSION_CLASS;
+
+	/**
+	 * a single valued reference of the extension class, typed with REFERABLE
+	 */
+	static final EReference EXTENSION_REFERENCE;
+
+	static {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("tests");
+		ePackage.setNsPrefix("tests");
+		ePackage.setNsURI("http://soton.ac.uk/models/eventb/translator/tests");
+		REFERABLE = EcoreFactory.eINSTANCE.createEClass();
+		REFERABLE.setName("Referable");
+		REFERABLE.setInterface(true);
+		REFERABLE.setAbstract(true);
+		ePackage.getEClassifiers().add(REFERABLE);
+		EXTENSION_CLASS = EcoreFactory.eINSTANCE.createEClass();
+		EXTENSION_CLASS.setName("TestExtension");
+		EXTENSION_CLASS.getESuperTypes().add(CorePackage.Literals.ABSTRACT_EXTENSION);
+		EXTENSION_CLASS.getESuperTypes().add(REFERABLE);
+		EXTENSION_REFERENCE = EcoreFactory.eINSTANCE.createEReference();
+		EXTENSION_REFERENCE.setName("ref");
+		EXTENSION_REFERENCE.setEType(REFERABLE);
+		EXTENSION_CLASS.getEStructuralFeatures().add(EXTENSION_REFERENCE);
+		ePackage.getEClassifiers().add(EXTENSION_CLASS);
+	}
+
+	/**
+	 * An extension of the dynamic extension class (its own features are held as dynamic settings)
+	 */
+	static final class TestExtension extends AbstractExtensionImpl {
+		TestExtension() {
+			eSetClass(EXTENSION_CLASS);
+		}
+	}
+
+	private TestModels() {
+	}
+
+	/**
+	 * @param id
+	 * @return a new extension with the given extension ID
+	 */
+	static AbstractExtension extension(String id) {
+		AbstractExtension extension = new TestExtension();
+		extension.setExtensionId(id);
+		return extension;
+	}
+
+	/**
+	 * makes the first extension refer to the second
+	 *
+	 * @param from
+	 * @param to
+	 */
+	static void refer(AbstractExtension from, AbstractExtension to) {
+		from.eSet(EXTENSION_REFERENCE, to);
+	}
+
+	/**
+	 * @param extensionId
+	 * @return the translation ID of the elements generated from the extension with the given ID
+	 */
+	static String translationId(String extensionId) {
+		return TRANSLATOR_ID+"::"+extensionId;
+	}
+
+	/**
+	 * Marks the element as generated, as the translator does, by setting its attributes directly
+	 *
+	 * @param element
+	 * @param translationId - or null to leave the element without a translation ID
+	 * @param priority - or null to leave the element without a placement priority
+	 */
+	static void generated(EventBElement element, String translationId, Integer priority) {
+		if (translationId != null) {
+			Attribute id = CoreFactory.eINSTANCE.createAttribute();
+			id.setValue(translationId);
+			id.setType(AttributeType.STRING);
+			element.getAttributes().put(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY, id);
+		}
+		if (priority != null) {
+			Attribute placement = CoreFactory.eINSTANCE.createAttribute();
+			placement.setValue(priority);
+			placement.setType(AttributeType.INTEGER);
+			element.getAttributes().put(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY, placement);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import static ac.soton.emf.translator.eventb.adapter.TestModels.generated;
+import static ac.soton.emf.translator.eventb.adapter.TestModels.translationId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Guard;
+import org.eventb.emf.core.machine.Invariant;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.Variable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.Make;
+
+/**
+ * Checks that the key of a translation does not depend on what the translation generates,
+ * that a result is only recorded once it has been saved, and that checking a result does not load anything
+ * into the resource set of the translation.
+ *
+ * @author cfs
+ *
+ */
+public class TranslationResultCacheTest {
+
+	private static final String RULE_SET = "tests/1";
+
+	private File folder;
+	private File cache;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("translation-result-cache").toFile();
+		cache = new File(folder, "cache");
+	}
+
+	@After
+	public void tearDown() {
+		TranslationContext.end();
+		delete(folder);
+	}
+
+	@Test
+	public void keyIsTheSameBeforeAndAfterTranslation() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName("m");
+		machine.getInvariants().add(Make.invariant("inv0", "x : NAT", ""));
+		Event event = Make.event("evt", "");
+		machine.getEvents().add(event);
+		String before = TranslationResultCache.key(machine, RULE_SET);
+
+		Invariant invariant = Make.invariant("inv1", "y : NAT", "");
+		generated(invariant, translationId("ext0"), 1);
+		machine.getInvariants().add(invariant);
+		Variable variable = Make.variable("y", "");
+		generated(variable, translationId("ext0"), 1);
+		machine.getVariables().add(variable);
+		Guard guard = Make.guard("grd", "y > 0", "");
+		generated(guard, translationId("ext0"), 1);
+		event.getGuards().add(guard);
+		Event generatedEvent = Make.event("gen", "");
+		generated(generatedEvent, translationId("ext0"), 1);
+		generatedEvent.getGuards().add(Make.guard("grd", "y > 1", ""));
+		machine.getEvents().add(generatedEvent);
+		assertEquals(before, TranslationResultCache.key(machine, RULE_SET));
+
+		machine.getInvariants().get(0).setPredicate("x : NAT1");
+		assertNotEquals(before, TranslationResultCache.key(machine, RULE_SET));
+		machine.getInvariants().get(0).setPredicate("x : NAT");
+		assertEquals(before, TranslationResultCache.key(machine, RULE_SET));
+		event.getGuards().add(Make.guard("user", "x > 0", ""));
+		assertNotEquals(before, TranslationResultCache.key(machine, RULE_SET));
+		assertNotEquals(TranslationResultCache.key(machine, RULE_SET), TranslationResultCache.key(machine, "tests/2"));
+	}
+
+	@Test
+	public void resultIsRecordedWhenSaved() {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		machineResource(resourceSet, "m");
+		TranslationResultCache.Lookup lookup = new TranslationResultCache.Lookup(cache, "k", resourceSet, false);
+		TranslationContext.begin().attach(TranslationResultCache.class, lookup);
+		TranslationResultCache.translationSucceeded();
+		assertFalse(entry("k").exists());
+		TranslationResultCache.translationSaved();
+		assertTrue(entry("k").exists());
+	}
+
+	@Test
+	public void resultIsNotRecordedWithoutSave() {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		machineResource(resourceSet, "m");
+		TranslationContext.begin().attach(TranslationResultCache.class, new TranslationResultCache.Lookup(cache, "k", resourceSet, false));
+		TranslationResultCache.translationSucceeded();
+		TranslationContext.end();
+		assertFalse(entry("k").exists());
+		// a translation that did not succeed records nothing when it is saved
+		TranslationContext.begin().attach(TranslationResultCache.class, new TranslationResultCache.Lookup(cache, "k", resourceSet, false));
+		TranslationResultCache.translationSaved();
+		assertFalse(entry("k").exists());
+	}
+
+	@Test
+	public void checkingDoesNotLoadIntoTheResourceSet() throws IOException {
+		ResourceSet resourceSet = new ResourceSetImpl();
+		Resource resource = machineResource(resourceSet, "m");
+		resource.save(null);
+		TranslationContext.begin().attach(TranslationResultCache.class, new TranslationResultCache.Lookup(cache, "k", resourceSet, false));
+		TranslationResultCache.translationSucceeded();
+		TranslationResultCache.translationSaved();
+
+		ResourceSet live = new ResourceSetImpl();
+		live.getResourceFactoryRegistry().getExtensionToFactoryMap().put("bum", new XMIResourceFactoryImpl());
+		assertTrue(TranslationResultCache.isUpToDate(cache, "k", live));
+		assertTrue(live.getResources().isEmpty());
+
+		((Machine) resource.getContents().get(0)).getInvariants().add(Make.invariant("inv1", "y : NAT", ""));
+		resource.save(null);
+		assertFalse(TranslationResultCache.isUpToDate(cache, "k", live));
+		assertTrue(live.getResources().isEmpty());
+		assertFalse(TranslationResultCache.isUpToDate(cache, "missing", live));
+	}
+
+	/**
+	 * @return a new resource of the resource set, in the temporary folder, holding a machine with the given name
+	 */
+	private Resource machineResource(ResourceSet resourceSet, String name) {
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("bum", new XMIResourceFactoryImpl());
+		Resource resource = resourceSet.createResource(URI.createFileURI(new File(folder, name+".bum").getPath()));
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName(name);
+		machine.getInvariants().add(Make.invariant("inv0", "x : NAT", ""));
+		resource.getContents().add(machine);
+		return resource;
+	}
+
+	private File entry(String key) {
+		return new File(cache, key+".result");
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
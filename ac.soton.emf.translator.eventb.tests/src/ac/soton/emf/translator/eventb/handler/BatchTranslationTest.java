@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.handler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eventb.emf.core.context.Context;
+import org.eventb.emf.core.context.ContextFactory;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.junit.Test;
+
+/**
+ * Checks the URIs of the components that a component depends on, which the batch translation groups components by,
+ * and that groups that changed the same resource are put together to be translated again,
+ * including groups that only changed a component that is not in the batch, such as a seen context.
+ *
+ * @author cfs
+ *
+ */
+public class BatchTranslationTest {
+
+	@Test
+	public void scopeHoldsTheComponentsDependedOn() {
+		Machine machine = machine("m1", "m0", "c0", "c1");
+		assertEquals(Arrays.asList(uri("p", "m1.bum"), uri("p", "m0.bum"), uri("p", "c0.buc"), uri("p", "c1.buc")),
+				new ArrayList<URI>(BatchTranslation.scope(uri("p", "m1.bum"), machine)));
+		Context context = ContextFactory.eINSTANCE.createContext();
+		context.setName("c1");
+		context.getExtendsNames().add("c0");
+		assertEquals(Arrays.asList(uri("p", "c1.buc"), uri("p", "c0.buc")),
+				new ArrayList<URI>(BatchTranslation.scope(uri("p", "c1.buc"), context)));
+	}
+
+	@Test
+	public void machinesThatChangedTheSameContextAreTranslatedAgainTogether() {
+		Map<String, Collection<URI>> changed = new LinkedHashMap<String, Collection<URI>>();
+		// the translations of m1 and m3 changed c0, which is not in the batch
+		changed.put("m1", Arrays.asList(uri("p", "m1.bum"), uri("p", "c0.buc")));
+		changed.put("m2", Arrays.asList(uri("p", "m2.bum")));
+		changed.put("m3", Arrays.asList(uri("p", "m3.bum"), uri("p", "c0.buc")));
+		// a context of the same name in another project is another resource
+		changed.put("m4", Arrays.asList(uri("q", "m4.bum"), uri("q", "c0.buc")));
+		// seeing the same context without changing it is not a conflict
+		changed.put("m5", Arrays.asList(uri("p", "m5.bum")));
+		assertEquals(Arrays.asList(Arrays.asList("m1", "m3"), Arrays.asList("m2"), Arrays.asList("m4"), Arrays.asList("m5")),
+				BatchTranslation.overlapping(changed));
+	}
+
+	@Test
+	public void overlapsAreTransitive() {
+		Map<String, Collection<URI>> scopes = new LinkedHashMap<String, Collection<URI>>();
+		scopes.put("a", Arrays.asList(uri("p", "a"), uri("p", "x")));
+		scopes.put("b", Arrays.asList(uri("p", "b"), uri("p", "y")));
+		scopes.put("c", Arrays.asList(uri("p", "c")));
+		// d joins the groups of a and b
+		scopes.put("d", Arrays.asList(uri("p", "d"), uri("p", "y"), uri("p", "x")));
+		scopes.put("e", Arrays.asList(uri("p", "e"), uri("p", "c")));
+		assertEquals(Arrays.asList(Arrays.asList("a", "b", "d"), Arrays.asList("c", "e")),
+				BatchTranslation.overlapping(scopes));
+	}
+
+	private static Machine machine(String name, String refines, String... sees) {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName(name);
+		if (refines != null) machine.getRefinesNames().add(refines);
+		machine.getSeesNames().addAll(Arrays.asList(sees));
+		return machine;
+	}
+
+	private static URI uri(String project, String file) {
+		return URI.createPlatformResourceURI("/"+project+"/"+file, true);
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Collections;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eventb.emf.core.machine.Event;
+import org.eventb.emf.core.machine.Guard;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.junit.Test;
+
+/**
+ * Checks what the digest of a model depends on.
+ *
+ * @author cfs
+ *
+ */
+public class ContentDigestTest {
+
+	@Test
+	public void copiesHaveTheSameDigest() {
+		Machine machine = machine();
+		assertEquals(ContentDigest.of(machine), ContentDigest.of(EcoreUtil.copy(machine)));
+	}
+
+	@Test
+	public void attributesAndOrderChangeTheDigest() {
+		Machine machine = machine();
+		String digest = ContentDigest.of(machine);
+		machine.getInvariants().get(0).setPredicate("x : NAT1");
+		assertNotEquals(digest, ContentDigest.of(machine));
+		machine.getInvariants().get(0).setPredicate("x : NAT");
+		assertEquals(digest, ContentDigest.of(machine));
+		machine.getInvariants().move(0, 1);
+		assertNotEquals(digest, ContentDigest.of(machine));
+	}
+
+	@Test
+	public void structureChangesTheDigest() {
+		// the same elements in the same order, held by different parents
+		Machine nested = MachineFactory.eINSTANCE.createMachine();
+		Event e1 = Make.event("e1", "");
+		e1.getGuards().add(Make.guard("g1", "x > 0", ""));
+		e1.getGuards().add(Make.guard("g2", "x > 1", ""));
+		nested.getEvents().add(e1);
+		nested.getEvents().add(Make.event("e2", ""));
+		Machine sibling = MachineFactory.eINSTANCE.createMachine();
+		Event e1b = Make.event("e1", "");
+		e1b.getGuards().add(Make.guard("g1", "x > 0", ""));
+		Event e2b = Make.event("e2", "");
+		e2b.getGuards().add(Make.guard("g2", "x > 1", ""));
+		sibling.getEvents().add(e1b);
+		sibling.getEvents().add(e2b);
+		assertNotEquals(ContentDigest.of(nested), ContentDigest.of(sibling));
+	}
+
+	@Test
+	public void excludedElementsAreLeftOut() {
+		Machine machine = machine();
+		String digest = ContentDigest.of(machine);
+		Event event = Make.event("gen", "");
+		event.getGuards().add(Make.guard("grd", "x > 0", ""));
+		machine.getEvents().add(event);
+		Guard guard = Make.guard("gen", "x > 1", "");
+		machine.getEvents().get(0).getGuards().add(guard);
+		assertNotEquals(digest, ContentDigest.of(machine));
+		assertEquals(digest, ContentDigest.of(Collections.singletonList(machine), element -> element == event || element == guard));
+		assertEquals(ContentDigest.of(machine), ContentDigest.of(Collections.singletonList(machine), element -> false));
+	}
+
+	private static Machine machine() {
+		Machine machine = MachineFactory.eINSTANCE.createMachine();
+		machine.setName("m");
+		machine.getVariables().add(Make.variable("x", ""));
+		machine.getInvariants().add(Make.invariant("inv0", "x : NAT", ""));
+		machine.getInvariants().add(Make.invariant("inv1", "x > 0", ""));
+		Event event = Make.event("evt", "");
+		event.getGuards().add(Make.guard("grd", "x > 0", ""));
+		event.getActions().add(Make.action("act", "x := x + 1", ""));
+		machine.getEvents().add(event);
+		return machine;
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.MachinePackage;
+import org.junit.Test;
+
+import ac.soton.emf.translator.TranslationDescriptor;
+
+/**
+ * Checks that Find.generatedElement with a DescriptorIndex finds the value that the linear scan of the list of descriptors finds,
+ * for any combination of parent and feature (including none) and as descriptors are appended to the list.
+ *
+ * @author cfs
+ *
+ */
+public class DescriptorIndexTest {
+
+	private static final EStructuralFeature[] FEATURES = {
+			MachinePackage.Literals.MACHINE__VARIABLES, MachinePackage.Literals.MACHINE__EVENTS, MachinePackage.Literals.EVENT__GUARDS
+	};
+
+	private final Random random = new Random(20261018L);
+	private final EventBElement[] parents = {
+			MachineFactory.eINSTANCE.createMachine(), MachineFactory.eINSTANCE.createMachine(), Make.event("evt", "")
+	};
+
+	@Test
+	public void sameAsLinearScan() {
+		List<TranslationDescriptor> descriptors = new ArrayList<TranslationDescriptor>();
+		DescriptorIndex index = new DescriptorIndex(descriptors);
+		for (int i = 0; i < 300; i++) {
+			descriptors.add(randomDescriptor());
+			if (random.nextBoolean()) index.update();
+			for (int j = 0; j < 10; j++) {
+				assertSameValue(descriptors, index, randomParent(), randomFeature(), "n"+random.nextInt(12));
+			}
+		}
+	}
+
+	@Test
+	public void appendedDescriptorsAreSeen() {
+		List<TranslationDescriptor> descriptors = new ArrayList<TranslationDescriptor>();
+		DescriptorIndex index = new DescriptorIndex(descriptors);
+		assertSameValue(descriptors, index, null, null, "n0");
+		descriptors.add(Make.descriptor(parents[0], FEATURES[0], "n0", null, 0, null));
+		assertSameValue(descriptors, index, null, null, "n0");
+		descriptors.add(Make.descriptor(parents[1], FEATURES[0], Make.variable("n0", ""), null, 0, null));
+		assertSameValue(descriptors, index, parents[1], null, "n0");
+		assertSameValue(descriptors, index, parents[1], FEATURES[1], "n0");
+	}
+
+	private static void assertSameValue(List<TranslationDescriptor> descriptors, DescriptorIndex index, EventBElement parent, EStructuralFeature feature, String identifier) {
+		assertSame(identifier, Find.generatedElement(descriptors, parent, feature, identifier), Find.generatedElement(index, parent, feature, identifier));
+	}
+
+	/**
+	 * @return a descriptor of a named element or of a string, with one of a few parents, features and names
+	 */
+	private TranslationDescriptor randomDescriptor() {
+		String name = "n"+random.nextInt(10);
+		Object value;
+		switch (random.nextInt(4)) {
+		case 0:
+			value = name;
+			break;
+		case 1:
+			value = Make.event(name, "");
+			break;
+		case 2:
+			value = Make.guard(name, "x > 0", "");
+			break;
+		default:
+			value = Make.variable(name, "");
+		}
+		return Make.descriptor(parents[random.nextInt(parents.length)], FEATURES[random.nextInt(FEATURES.length)], value, null, 0, null);
+	}
+
+	private EventBElement randomParent() {
+		int i = random.nextInt(parents.length+1);
+		return i == parents.length? null : parents[i];
+	}
+
+	private EStructuralFeature randomFeature() {
+		int i = random.nextInt(FEATURES.length+1);
+		return i == FEATURES.length? null : FEATURES[i];
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.eclipse.emf.common.util.EList;
+import org.eventb.emf.core.EventBNamed;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachineFactory;
+import org.eventb.emf.core.machine.Variable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * Checks that Find.named, which uses a NameIndex of the list during a translation,
+ * finds the element that the original linear scan of the list found, as elements are added, removed, moved and renamed.
+ *
+ * @author cfs
+ *
+ */
+public class NameIndexTest {
+
+	private final Random random = new Random(20261018L);
+	private Machine machine;
+
+	@Before
+	public void setUp() {
+		machine = MachineFactory.eINSTANCE.createMachine();
+		TranslationContext.begin();
+	}
+
+	@After
+	public void tearDown() {
+		TranslationContext.end();
+	}
+
+	@Test
+	public void indexIsUsedForLongLists() {
+		EList<Variable> list = machine.getVariables();
+		for (int i = 0; i < 20; i++) {
+			list.add(Make.variable("v"+i, ""));
+		}
+		assertNotNull(NameIndex.of(list));
+		for (int i = 0; i < 21; i++) {
+			assertSameElement(list, "v"+i);
+		}
+	}
+
+	@Test
+	public void duplicateNames() {
+		EList<Variable> list = machine.getVariables();
+		for (int i = 0; i < 20; i++) {
+			list.add(Make.variable("v"+(i % 5), ""));
+		}
+		for (int i = 0; i < 6; i++) {
+			assertSameElement(list, "v"+i);
+		}
+		list.remove(0);
+		list.move(0, list.size()-1);
+		list.get(3).setName("v0");
+		for (int i = 0; i < 6; i++) {
+			assertSameElement(list, "v"+i);
+		}
+	}
+
+	@Test
+	public void randomChanges() {
+		EList<Variable> list = machine.getVariables();
+		for (int i = 0; i < 2000; i++) {
+			switch (random.nextInt(6)) {
+			case 0: case 1:
+				list.add(random.nextInt(list.size()+1), Make.variable(randomName(), ""));
+				break;
+			case 2:
+				if (!list.isEmpty()) list.remove(random.nextInt(list.size()));
+				break;
+			case 3:
+				if (!list.isEmpty()) list.move(random.nextInt(list.size()), random.nextInt(list.size()));
+				break;
+			default:
+				if (!list.isEmpty()) list.get(random.nextInt(list.size())).setName(random.nextInt(10) == 0? null : randomName());
+			}
+			assertSameElement(list, randomName());
+		}
+	}
+
+	private String randomName() {
+		return "v"+random.nextInt(30);
+	}
+
+	private static void assertSameElement(EList<Variable> list, String name) {
+		EventBNamed expected = null;
+		for (EventBNamed element : list) {
+			if (name.equals(element.getName())) {
+				expected = element;
+				break;
+			}
+		}
+		assertSame(name, expected, Find.named(list, name));
+	}
+}
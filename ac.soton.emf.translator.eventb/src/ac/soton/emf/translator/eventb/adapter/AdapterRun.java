@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * The state that an EventBTranslatorAdapter keeps for one translation run.
+ * It is attached to the translation context of the run, so that an adapter can be used by several translations
+ * running at the same time on different threads, and is disposed when the context ends.
+ * Only a run in a managed context keeps the indexes and caches that watch or refer to the elements of the model:
+ * an unmanaged context is never ended, so they would stay attached to the model and go out of date.
+ *
+ * @see TranslationContext
+ *
+ * @author cfs
+ *
+ */
+final class AdapterRun implements TranslationContext.Participant {
+
+	/**
+	 * whether the indexes and caches of model elements are kept
+	 *
+	 * @see TranslationContext#isManaged()
+	 */
+	final boolean cached;
+
+	/**
+	 * whether the run is attached to a translation context, otherwise it is made afresh for a single call
+	 * from a thread on which no translation is running (and the extension order has not been built)
+	 */
+	final boolean attached;
+
+	/**
+	 * used to store the order/position of extensions in the source
+	 * The key(String) is the ExtensionID property of an AbstractExtension (if it has one)
+	 * The value(int) is the position of that AbstractExtension in the target component.
+	 *
+	 * @see org.eventb.emf.core.AbstractExtension
+	 * @see ac.soton.emf.translator.eventb.adapter.ExtensionOrder
+	 */
+	final ExtensionOrder extensionOrder = new ExtensionOrder();
+
+	/**
+	 * placement indexes of the target lists that getPos has been asked about
+	 * The key(List) is the EMF list of a (parent, feature)
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.PlacementIndex
+	 */
+	final Map<List<?>,PlacementIndex> placementIndices = new IdentityHashMap<List<?>,PlacementIndex>();
+
+	/**
+	 * resolved priorities and extension positions of the elements seen
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.PlacementKeyCache
+	 */
+	final PlacementKeyCache placementKeys;
+
+	/**
+	 * match indexes of the lists that outputFilter has checked
+	 * The key(List) is the EMF list of a (parent, feature)
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.MatchIndex
+	 */
+	final Map<List<?>,MatchIndex> matchIndices = new IdentityHashMap<List<?>,MatchIndex>();
+
+	/**
+	 * the elements inherited by event extension for the (event, feature) lists that outputFilter has checked
+	 * The key(List) is the EMF list of an (event, feature)
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.ExtensionView
+	 */
+	final Map<List<?>,ExtensionView> extensionViews = new IdentityHashMap<List<?>,ExtensionView>();
+
+	/**
+	 * constraints in scope of the components that constraintFilter has checked
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.ConstraintScope
+	 */
+	final ConstraintScope constraintScope = new ConstraintScope();
+
+	/**
+	 * URIs of the components named by translation descriptors, which lazy loading of the affected resources includes
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.EventBTranslatorAdapter#getComponentURI
+	 */
+	final Set<URI> namedComponents = new LinkedHashSet<URI>();
+
+	/**
+	 * fingerprints of the extensions of the target component, used in incremental mode
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.ExtensionFingerprints
+	 */
+	final ExtensionFingerprints fingerprints = new ExtensionFingerprints();
+
+	/**
+	 * translation IDs made during the run
+	 * The key(Object) is the root source element (compared by identity)
+	 * The value(Map) maps the basic translator ID to the translation ID
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.EventBTranslatorAdapter#getTranslationId(String, Object)
+	 */
+	final Map<Object,Map<String,String>> translationIds = new IdentityHashMap<Object,Map<String,String>>();
+
+	/**
+	 * URIs (as strings) of the source elements that generated elements have been linked to
+	 * The key(Object) is the source element (compared by identity)
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.EventBTranslatorAdapter#setSourceElement(Object, Object)
+	 */
+	final Map<Object,String> sourceURIs = new IdentityHashMap<Object,String>();
+
+	/**
+	 * true if the result of the translation has been found in the translation result cache,
+	 * in which case nothing is translated and the previously generated elements are kept
+	 *
+	 * @see ac.soton.emf.translator.eventb.adapter.TranslationResultCache
+	 */
+	boolean replayed = false;
+
+	/**
+	 * the string values written into the attributes of generated elements (e.g. translation IDs and source URIs)
+	 * so that each distinct value is held once however many elements carry it
+	 */
+	private final Map<String,String> strings = new HashMap<String,String>();
+
+	/**
+	 * @param context - the context of the run or null for a run that is used for a single call outside any translation
+	 */
+	AdapterRun(TranslationContext context) {
+		cached = context != null && context.isManaged();
+		attached = context != null;
+		placementKeys = new PlacementKeyCache(cached);
+	}
+
+	/**
+	 * @param value
+	 * @return the instance of the given string value that is shared for the rest of the run
+	 */
+	String intern(String value) {
+		String shared = strings.get(value);
+		if (shared == null) {
+			strings.put(value, value);
+			shared = value;
+		}
+		return shared;
+	}
+
+	/**
+	 * detach and discard the indexes and caches built during the translation run
+	 */
+	@Override
+	public void translationEnded() {
+		for (PlacementIndex index : placementIndices.values()) {
+			index.dispose();
+		}
+		placementIndices.clear();
+		placementKeys.clear();
+		for (ExtensionView view : extensionViews.values()) {
+			view.release();
+		}
+		extensionViews.clear();
+		for (MatchIndex index : matchIndices.values()) {
+			index.dispose();
+		}
+		matchIndices.clear();
+		constraintScope.dispose();
+		namedComponents.clear();
+		fingerprints.clear();
+		extensionOrder.clear();
+		translationIds.clear();
+		sourceURIs.clear();
+		strings.clear();
+	}
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eventb.emf.core.EventBNamedCommentedComponentElement;
+import org.eventb.emf.core.context.Context;
+import org.eventb.emf.core.context.ContextPackage;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.core.machine.MachinePackage;
+
+/**
+ * Per translation run memo of the constraint predicates (invariants and axioms) that are in scope of a component.
+ *
+ * The scope of a component is the component itself and, transitively, the machines it refines, the contexts
+ * it sees and the contexts it extends. Cycles in these relationships are tolerated (each component is only visited once).
+ *
+ * For each component that is asked about, the (whitespace insensitive) predicates of all the components in its scope
+ * are combined into a single set so that a constraint can be checked with one lookup.
+ * The set is kept up to date as constraints are added to or removed from any component in the scope,
+ * and is rebuilt if the refines, sees or extends relationships of any of them change.
+ *
+ * @see EventBTranslatorAdapter#constraintFilter(EventBNamedCommentedComponentElement, org.eventb.emf.core.EventBNamedCommentedPredicateElement)
+ *
+ * @author cfs
+ *
+ */
+class ConstraintScope {
+
+	private final Map<EventBNamedCommentedComponentElement,MatchIndex> indices = new IdentityHashMap<EventBNamedCommentedComponentElement,MatchIndex>();
+	private final Map<EventBNamedCommentedComponentElement,ScopeSet> scopes = new IdentityHashMap<EventBNamedCommentedComponentElement,ScopeSet>();
+
+	/**
+	 * The combined constraint predicates of all the components in scope of a root component
+	 */
+	private final class ScopeSet extends MatchUnion {
+
+		private final EventBNamedCommentedComponentElement root;
+
+		ScopeSet(EventBNamedCommentedComponentElement root) {
+			this.root = root;
+		}
+
+		@Override
+		protected boolean collect() {
+			for (EventBNamedCommentedComponentElement component : scopeOf(root)) {
+				EStructuralFeature feature = constraintsFeature(component);
+				if (feature == null) continue; // neither a machine nor a context
+				if (!count(getIndex(component, feature))) return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * whether the predicate of the given constraint is equivalent to the predicate of any constraint in scope of the given component
+	 *
+	 * @param component
+	 * @param constraint
+	 * @return true or false, or null if the question cannot be answered using the indexes
+	 * (e.g. because one of the components does not deliver notifications)
+	 */
+	Boolean inScope(EventBNamedCommentedComponentElement component, Object constraint) {
+		ScopeSet scope = scopes.get(component);
+		if (scope == null) {
+			scope = new ScopeSet(component);
+			scopes.put(component, scope);
+		}
+		if (!scope.validate()) return null;
+		return scope.contains(MatchKey.ofPredicate(constraint));
+	}
+
+	/**
+	 * detaches all the indexes
+	 */
+	void dispose() {
+		for (ScopeSet scope : scopes.values()) {
+			scope.release();
+		}
+		scopes.clear();
+		for (MatchIndex index : indices.values()) {
+			index.dispose();
+		}
+		indices.clear();
+	}
+
+	/**
+	 * gets (creating it if necessary) the predicate index of the constraints of the component
+	 * which also reports changes to the scope relationships of the component
+	 */
+	private MatchIndex getIndex(EventBNamedCommentedComponentElement component, EStructuralFeature feature) {
+		MatchIndex index = indices.get(component);
+		if (index == null) {
+			index = new MatchIndex(component, feature, true, 
+					MachinePackage.Literals.MACHINE__REFINES, 
+					MachinePackage.Literals.MACHINE__SEES, 
+					ContextPackage.Literals.CONTEXT__EXTENDS);
+			indices.put(component, index);
+		}
+		return index;
+	}
+
+	/**
+	 * returns the components in scope of the given component including itself.
+	 * Each component is only visited once so cyclic relationships are tolerated.
+	 *
+	 * @param component
+	 * @return
+	 */
+	static Set<EventBNamedCommentedComponentElement> scopeOf(EventBNamedCommentedComponentElement component) {
+		Set<EventBNamedCommentedComponentElement> visited = Collections.newSetFromMap(new IdentityHashMap<EventBNamedCommentedComponentElement,Boolean>());
+		Set<EventBNamedCommentedComponentElement> scope = new LinkedHashSet<EventBNamedCommentedComponentElement>();
+		List<EventBNamedCommentedComponentElement> toVisit = new ArrayList<EventBNamedCommentedComponentElement>();
+		toVisit.add(component);
+		while (!toVisit.isEmpty()) {
+			EventBNamedCommentedComponentElement cp = toVisit.remove(toVisit.size()-1);
+			if (cp == null || !visited.add(cp)) continue;
+			scope.add(cp);
+			if (cp instanceof Machine) {
+				toVisit.addAll(((Machine)cp).getRefines());
+				toVisit.addAll(((Machine)cp).getSees());
+			}
+			if (cp instanceof Context) {
+				toVisit.addAll(((Context)cp).getExtends());
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * returns the feature that holds the constraints of the component (invariants or axioms)
+	 * or null if the component is neither a machine nor a context
+	 *
+	 * @param component
+	 * @return
+	 */
+	static EStructuralFeature constraintsFeature(EventBNamedCommentedComponentElement component) {
+		return component instanceof Machine? MachinePackage.Literals.MACHINE__INVARIANTS :
+				component instanceof Context? ContextPackage.Literals.CONTEXT__AXIOMS :
+				null;
+	}
+}
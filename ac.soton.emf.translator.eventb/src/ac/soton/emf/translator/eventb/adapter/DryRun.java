@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eventb.emf.core.EventBNamed;
+
+import ac.soton.emf.translator.TranslationDescriptor;
+
+/**
+ * <p>
+ * A dry run of the translations on the current thread: the translation runs as usual, but the EventBTranslatorAdapter
+ * reports what it would do to a listener instead of letting the translator change the model.
+ * </p>
+ * <p>
+ * Each descriptor that reaches outputFilter is reported as an addition (with the position its value would be placed at)
+ * or as filtered out, and is then filtered out so that the translator does not apply it.
+ * Each element that wasGeneratedBy finds from a previous translation, and the value of each removal descriptor,
+ * is reported as a removal and is kept.
+ * Nothing is added to or removed from the model, so later descriptors are checked against the model as it would be
+ * by then: the elements reported as removed are ignored, and the additions reported for the same list so far are taken into account.
+ * </p>
+ * <p>
+ * A dry run does not save anything (see BatchTranslation.dryRun). Use as
+ * <pre>
+ * DryRun.begin(componentURI, listener);
+ * try { ... translate ... } finally { DryRun.end(); }
+ * </pre>
+ * </p>
+ *
+ * @see EventBTranslatorAdapter#outputFilter(TranslationDescriptor)
+ * @see EventBTranslatorAdapter#wasGeneratedBy(Object, String)
+ *
+ * @author cfs
+ * @since 1.0
+ */
+public final class DryRun {
+
+	/**
+	 * The kinds of change reported by a dry run
+	 */
+	public enum Kind {
+		/** the value of the descriptor would be added */
+		ADD,
+		/** the descriptor would be filtered out by outputFilter */
+		FILTER,
+		/** the element, generated by a previous translation, would be removed */
+		REMOVE
+	}
+
+	/**
+	 * One change that a translation would make
+	 */
+	public static final class Change {
+		private final Kind kind;
+		private final URI component;
+		private final TranslationDescriptor descriptor;
+		private final Object element;
+		private final int position;
+
+		private Change(Kind kind, URI component, TranslationDescriptor descriptor, Object element, int position) {
+			this.kind = kind;
+			this.component = component;
+			this.descriptor = descriptor;
+			this.element = element;
+			this.position = position;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the URI of the component being translated
+		 */
+		public URI getComponent() {
+			return component;
+		}
+
+		/**
+		 * @return the descriptor of an addition, of a filtered out descriptor or of a removal descriptor,
+		 *  or null for the removal of a previously generated element
+		 */
+		public TranslationDescriptor getDescriptor() {
+			return descriptor;
+		}
+
+		/**
+		 * @return the element that would be added or removed, or the value of the filtered out descriptor
+		 */
+		public Object getElement() {
+			return element != null? element : descriptor.value;
+		}
+
+		/**
+		 * @return for an addition to a list, the position in the list at which the value would be placed, otherwise -1
+		 */
+		public int getPosition() {
+			return position;
+		}
+
+		@Override
+		public String toString() {
+			Object value = getElement();
+			String name = value instanceof EventBNamed? ((EventBNamed) value).getName() : String.valueOf(value);
+			String where = element instanceof EObject? String.valueOf(EcoreUtil.getURI((EObject) element))
+					: descriptor == null || descriptor.parent == null || descriptor.feature == null? "root"
+					: EcoreUtil.getURI(descriptor.parent)+"/"+descriptor.feature.getName()+(position < 0? "" : "["+position+"]");
+			return kind+" "+name+" "+where;
+		}
+	}
+
+	/**
+	 * Told about each change that a dry run finds.
+	 * It is called on the thread running the translation.
+	 */
+	public interface Listener {
+		void changed(Change change);
+	}
+
+	private static final ThreadLocal<DryRun> current = new ThreadLocal<DryRun>();
+
+	private final URI component;
+	private final Listener listener;
+
+	/**
+	 * the lists of the model that values have been reported as added to, as they would be by now:
+	 * without the elements reported as removed and with the values reported as added
+	 */
+	private final Map<List<?>,List<Object>> views = new IdentityHashMap<List<?>,List<Object>>();
+
+	/**
+	 * the match keys of the values reported as added to each list
+	 */
+	private final Map<List<?>,Set<MatchKey>> addedMatches = new IdentityHashMap<List<?>,Set<MatchKey>>();
+
+	/**
+	 * the elements reported as removed
+	 */
+	private final Set<Object> removed = Collections.newSetFromMap(new IdentityHashMap<Object,Boolean>());
+
+	private DryRun(URI component, Listener listener) {
+		this.component = component;
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts a dry run on the current thread, replacing any dry run that has not been ended
+	 *
+	 * @param component - the URI of the component to be translated (reported with each change)
+	 * @param listener
+	 */
+	public static void begin(URI component, Listener listener) {
+		current.set(new DryRun(component, listener));
+	}
+
+	/**
+	 * Ends the dry run on the current thread
+	 */
+	public static void end() {
+		current.remove();
+	}
+
+	/**
+	 * @return true if a dry run is in progress on the current thread
+	 */
+	public static boolean isActive() {
+		return current.get() != null;
+	}
+
+	/**
+	 * @return the dry run in progress on the current thread or null if there is none
+	 */
+	static DryRun current() {
+		return current.get();
+	}
+
+	/**
+	 * @return true if anything has been reported as removed
+	 */
+	boolean hasRemovals() {
+		return !removed.isEmpty();
+	}
+
+	/**
+	 * @param element
+	 * @return true if the element has been reported as removed, so that it would not be in the model when later descriptors are applied
+	 */
+	boolean isRemoved(Object element) {
+		return removed.contains(element);
+	}
+
+	/**
+	 * @param list - a list of the model
+	 * @return the list as it would be by now, without the elements reported as removed and with the values reported as added
+	 *  (the list itself if the dry run has not changed it)
+	 */
+	List<?> view(List<?> list) {
+		List<Object> view = views.get(list);
+		return view != null? view : removed.isEmpty()? list : copy(list);
+	}
+
+	/**
+	 * @return a copy of the list without the elements reported as removed
+	 */
+	private List<Object> copy(List<?> list) {
+		List<Object> copy = new ArrayList<Object>(list.size()+1);
+		for (Object element : list) {
+			if (!removed.contains(element)) copy.add(element);
+		}
+		return copy;
+	}
+
+	/**
+	 * @param list
+	 * @param key - the match key of a value, or null if it cannot match anything
+	 * @return true if a value matching the given key has been reported as added to the list
+	 */
+	boolean isAdded(List<?> list, MatchKey key) {
+		Set<MatchKey> matches = addedMatches.get(list);
+		return key != null && matches != null && matches.contains(key);
+	}
+
+	/**
+	 * Reports an addition to a list
+	 *
+	 * @param descriptor
+	 * @param list
+	 * @param key - the match key of the value, or null if it cannot match anything
+	 * @param pos - the position in the view of the list at which the value would be placed
+	 */
+	void added(TranslationDescriptor descriptor, List<?> list, MatchKey key, int pos) {
+		List<Object> view = views.get(list);
+		if (view == null) {
+			view = copy(list);
+			views.put(list, view);
+		}
+		view.add(pos, descriptor.value);
+		if (key != null) {
+			Set<MatchKey> matches = addedMatches.get(list);
+			if (matches == null) {
+				matches = new HashSet<MatchKey>();
+				addedMatches.put(list, matches);
+			}
+			matches.add(key);
+		}
+		listener.changed(new Change(Kind.ADD, component, descriptor, null, pos));
+	}
+
+	/**
+	 * Reports an addition that is not to a list (e.g. a new component or a single valued feature)
+	 *
+	 * @param descriptor
+	 */
+	void added(TranslationDescriptor descriptor) {
+		listener.changed(new Change(Kind.ADD, component, descriptor, null, -1));
+	}
+
+	/**
+	 * Reports a descriptor that is filtered out
+	 *
+	 * @param descriptor
+	 */
+	void filtered(TranslationDescriptor descriptor) {
+		listener.changed(new Change(Kind.FILTER, component, descriptor, null, -1));
+	}
+
+	/**
+	 * Reports the removal of a previously generated element (once, however many times it is checked)
+	 *
+	 * @param element
+	 */
+	void removed(EObject element) {
+		if (removed.add(element)) {
+			removeFromViews(element);
+			listener.changed(new Change(Kind.REMOVE, component, null, element, -1));
+		}
+	}
+
+	/**
+	 * Reports the removal of the value of a removal descriptor (unless it has already been reported)
+	 *
+	 * @param descriptor
+	 */
+	void removed(TranslationDescriptor descriptor) {
+		if (removed.add(descriptor.value)) {
+			removeFromViews(descriptor.value);
+			listener.changed(new Change(Kind.REMOVE, component, descriptor, descriptor.value, -1));
+		}
+	}
+
+	private void removeFromViews(Object element) {
+		for (List<Object> view : views.values()) {
+			for (int i = 0; i < view.size(); i++) {
+				if (view.get(i) == element) {
+					view.remove(i);
+					break;
+				}
+			}
+		}
+	}
+}
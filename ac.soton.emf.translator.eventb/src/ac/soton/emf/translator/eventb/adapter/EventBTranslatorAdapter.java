@@ -14,22 +14,26 @@
 package ac.soton.emf.translator.eventb.adapter;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
@@ -51,11 +55,18 @@ import org.eventb.emf.core.context.ContextPackage;
 import org.eventb.emf.core.machine.Event;
 import org.eventb.emf.core.machine.Machine;
 import org.eventb.emf.core.machine.MachinePackage;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 
 import ac.soton.emf.translator.TranslationDescriptor;
 import ac.soton.emf.translator.configuration.AttributeIdentifiers;
 import ac.soton.emf.translator.configuration.DefaultAdapter;
 import ac.soton.emf.translator.configuration.IAdapter;
+import ac.soton.emf.translator.eventb.instrumentation.Counter;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation.Timer;
+import ac.soton.emf.translator.eventb.instrumentation.Phase;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
 import ac.soton.emf.translator.eventb.utils.Utils;
 
 /**
@@ -72,13 +83,44 @@ import ac.soton.emf.translator.eventb.utils.Utils;
 public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter {
 
 	/**
-	 * used to store the order/position of extensions in the source
-	 * The key(String) is the ExtensionID property of an AbstractExtension (if it has one)
-	 * The value(Integer) is the position of that AbstractExtension in the containment of its parent.
+	 * the match indexes can only be used if match has not been overridden
+	 */
+	private final boolean defaultMatch = isDefaultMatch();
+
+	/**
+	 * system property which, when set to true, switches on lazy loading of the affected resources
+	 * 
+	 * @see #isLazyLoading()
+	 */
+	public static final String LAZY_LOADING_PROPERTY = "ac.soton.emf.translator.eventb.lazyLoading";
+
+	/**
+	 * system property which, when set to true, switches on incremental translation
+	 * 
+	 * @see #isIncremental()
+	 */
+	public static final String INCREMENTAL_PROPERTY = "ac.soton.emf.translator.eventb.incremental";
+
+	/**
+	 * system property which, when set to true, switches on the on-disk cache of translation results
+	 * 
+	 * @see #isResultCaching()
+	 */
+	public static final String RESULT_CACHE_PROPERTY = "ac.soton.emf.translator.eventb.resultCache";
+
+	/**
+	 * key of the attribute that records, on a generated element, the fingerprint of the extension it was generated from
 	 * 
-	 * @see org.eventb.emf.core.AbstractExtension
+	 * @see #isIncremental()
 	 */
-	private Map<String,Integer> extensionOrder = new HashMap<String,Integer>();
+	public static final String TRANSLATOR__FINGERPRINT_KEY = "ac.soton.emf.translator.eventb.fingerprint";
+
+	/**
+	 * the largest magnitude of priority that is distinguished when placing elements (larger ones are placed as if they were this)
+	 * 
+	 * @see #placementKey(Object)
+	 */
+	static final int PRIORITY_LIMIT = 1 << 29;
 	
 	/**
 	 * 
@@ -86,9 +128,10 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * The idea of this is that the translator will maintain the order of generated elements in accordance with the 
 	 * source from which they were generated. If the target is not an EventBElement or does not have an appropriate 
 	 * reference to a Extension in an attribute whose key is AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY, 
-	 * the returned position is the end of the list
+	 * the returned position is the end of the list.
+	 * The position is cached for the rest of the translation run if it runs in a managed translation context.
 	 * 
-	 * @see ac.soton.emf.translator.eventb.adapter.EventBTranslatorAdapter.extensionOrder
+	 * @see ac.soton.emf.translator.eventb.adapter.AdapterRun#extensionOrder
 	 * @see AttributeIdentifiers
 	 * 
 	 * @param target
@@ -97,16 +140,46 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 */
 	protected Integer getExtensionPosition(Object target) {
 		if (target instanceof EventBElement){
-			Attribute attribute = ((EventBElement)target).getAttributes().get(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
-			if (attribute==null) return extensionOrder.size();
-			String translation_ID = (String) attribute.getValue();
-			if (translation_ID==null || !translation_ID.contains("::")) return extensionOrder.size();
-			String extensionID = translation_ID.substring(translation_ID.lastIndexOf("::")+2);
-			Integer v_xod = extensionOrder.get(extensionID);
-			if (v_xod==null) return extensionOrder.size(); // not an extension => user entered stuff comes last
-			return v_xod;
+			PlacementKeyCache.Keys keys = run().placementKeys.get(target);
+			if (!keys.extensionPositionKnown) {
+				Attribute attribute = ((EventBElement)target).getAttributes().get(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
+				keys.setExtensionPosition(extensionPosition(target, attribute==null? null : (String) attribute.getValue()));
+			}
+			return keys.extensionPosition;
 		}else{
-			return extensionOrder.size();
+			return run().extensionOrder.end();
+		}
+	}
+
+	/**
+	 * Local method to get the position of the extension identified in the given translation ID
+	 * or the end of the list if the translation ID does not identify an extension in the extensionOrder list.
+	 * If no translation is running on this thread, the extensionOrder list is worked out from the component of the target.
+	 * 
+	 * @param target
+	 * @param translation_ID
+	 * @return position in the extensionOrder list 
+	 */
+	private int extensionPosition(Object target, String translation_ID) {
+		AdapterRun run = run();
+		if (!run.attached) {
+			buildExtensionOrder(run, target);
+		}
+		// not an extension => user entered stuff comes last
+		return run.extensionOrder.positionOf(translation_ID);
+	}
+
+	/**
+	 * Local method to calculate the extensionOrder list of a run from the component that contains the given element
+	 * (or is the element), when it has not been calculated by initialiseAdapter.
+	 * 
+	 * @param run
+	 * @param element
+	 */
+	private void buildExtensionOrder(AdapterRun run, Object element) {
+		if (element instanceof EventBObject) {
+			EObject component = ((EventBObject)element).getContaining(CorePackage.Literals.EVENT_BNAMED_COMMENTED_COMPONENT_ELEMENT);
+			if (component instanceof EventBObject) run.extensionOrder.build((EventBObject) component);
 		}
 	}
 
@@ -114,39 +187,62 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * {@inheritDoc}
 	 * 
 	 * EventBTranslatorAdapter implementation:
-	 * Resets any storage in Utils.storage, then calculates and records the extensionOrder list.
+	 * Joins the translation context that has been opened for the resource set of the source element (e.g. by the translate handler)
+	 * or that has been opened on the current thread, or otherwise starts a new (unmanaged) translation context for the current thread, which provides fresh storage for the rules
+	 * and discards anything left over from a previous translation on this thread.
+	 * Resets any storage in Utils.storage, then calculates and records the extensionOrder table for this run.
+	 * In incremental mode, also fingerprints the extensions of the target component.
+	 * When result caching is on, looks up the result of the translation in the translation result cache.
+	 * When instrumentation is enabled, starts collecting the metrics of the translation.
 	 * 
 	 * @see ac.soton.emf.translator.eventb.utils.Utils
+	 * @see ac.soton.emf.translator.eventb.internal.rules.TranslationContext
 	 * 
 	 */
 	@Override	
 	public void initialiseAdapter(Object sourceElement){
-		if (sourceElement instanceof EventBObject){
-			Object targetComponent = getTargetComponent(sourceElement); 
-			Utils.resetStorage(targetComponent);
-			//set up map of extensions ids and their positions
-			if (targetComponent instanceof EventBObject) {
-				int i=0;
-				for (EObject ae : ((EventBObject) targetComponent).getAllContained(CorePackage.Literals.ABSTRACT_EXTENSION, true)){
-					if (ae !=null) {
-						String id = ((AbstractExtension)ae).getExtensionId();
-						if (id != null && !extensionOrder.containsKey(id)) {
-							extensionOrder.put(id, i++);
-							EClass eclass = ae.eClass();
-							EList<EReference> refs = eclass.getEReferences();
-							for (EReference r : refs) {
-								Object rae = ae.eGet(r);
-								if (rae instanceof AbstractExtension) {
-									id = ((AbstractExtension)rae).getExtensionId();
-									extensionOrder.put(id, i++);
-								}
-							}
-						}
+		startContext(sourceElement);
+		Instrumentation.translationStarted(sourceElement);
+		Timer timer = Instrumentation.start(Phase.INITIALISE);
+		try {
+			if (sourceElement instanceof EventBObject){
+				Object targetComponent = getTargetComponent(sourceElement); 
+				Utils.resetStorage(targetComponent);
+				//set up map of extensions ids and their positions
+				if (targetComponent instanceof EventBObject) {
+					run().extensionOrder.build((EventBObject) targetComponent);
+					if (isIncremental()) {
+						run().fingerprints.initialise((EventBObject) targetComponent);
+					}
+					if (isResultCaching() && targetComponent instanceof EventBNamedCommentedComponentElement && !DryRun.isActive()) {
+						TranslationResultCache.Lookup lookup = TranslationResultCache.lookup((EventBNamedCommentedComponentElement) targetComponent, getRuleSetId());
+						run().replayed = lookup != null && lookup.hit;
 					}
 				}
 			}
+			super.initialiseAdapter(sourceElement);
+		} finally {
+			timer.end();
+		}
+	}
+
+	/**
+	 * Local method to bind the translation context for a translation of the given source element to the current thread.
+	 * The context opened for the resource set of the source element, or else the one bound to the current thread, is used
+	 * if it has not been used by another translation, otherwise a new unmanaged context is begun,
+	 * in which the indexes that watch the model are not used since nobody ends it.
+	 * 
+	 * @param sourceElement
+	 */
+	private void startContext(Object sourceElement) {
+		Resource resource = sourceElement instanceof EObject? ((EObject) sourceElement).eResource() : null;
+		TranslationContext context = TranslationContext.join(resource == null? null : resource.getResourceSet());
+		if (context == null) {
+			context = TranslationContext.current();
+		}
+		if (context == null || !context.startTranslation()) {
+			TranslationContext.beginUnmanaged().startTranslation();
 		}
-		super.initialiseAdapter(sourceElement);
 	}
 
 	/**
@@ -216,6 +312,7 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 							component instanceof Machine? "bum" :
 								"";
 			URI fileUri = projectUri.appendSegment(fileName).appendFileExtension(ext); //$NON-NLS-1$
+			run().namedComponents.add(fileUri);
 			return fileUri;
 		}
 		return super.getComponentURI(translationDescriptor, rootSourceElement);
@@ -227,9 +324,32 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * EventBTranslatorAdapter implementation:
 	 * Return all EMF resources in the same project as the source element that are EventB Machines or Contexts 
 	 * 
+	 * If lazy loading is switched on, only the resources that the translation depends on are loaded.
+	 * 
+	 * @see #isLazyLoading()
 	 */
 	@Override
 	public Collection<Resource> getAffectedResources(TransactionalEditingDomain editingDomain, EObject sourceElement) throws IOException {
+		Timer timer = Instrumentation.start(Phase.AFFECTED_RESOURCES);
+		try {
+			return affectedResources(editingDomain, sourceElement);
+		} finally {
+			timer.end();
+		}
+	}
+
+	/**
+	 * Local method implementing getAffectedResources
+	 * 
+	 * @param editingDomain
+	 * @param sourceElement
+	 * @return the affected resources
+	 * @throws IOException
+	 */
+	private Collection<Resource> affectedResources(TransactionalEditingDomain editingDomain, EObject sourceElement) throws IOException {
+		if (isLazyLoading()) {
+			return getDependedOnResources(editingDomain.getResourceSet(), sourceElement);
+		}
 		List<Resource> affectedResources = new ArrayList<Resource>();
 		String projectName = EcoreUtil.getURI(sourceElement).segment(1);
 		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
@@ -244,6 +364,7 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 						if (resource != null) {
 							if (!resource.isLoaded()) {
 								resource.load(Collections.emptyMap());
+								Instrumentation.count(Counter.RESOURCES_LOADED, 1);
 							}
 							if (resource.isLoaded()) {
 								affectedResources.add(resource);
@@ -258,18 +379,199 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 		return affectedResources;
 	}
 	
+	/**
+	 * Whether getAffectedResources should load only the resources that the translation depends on,
+	 * rather than every machine and context in the project.
+	 * By default this is switched on by setting the system property LAZY_LOADING_PROPERTY to true;
+	 * extensions can override this to choose for themselves.
+	 * 
+	 * @see #LAZY_LOADING_PROPERTY
+	 * @return true if resources are loaded lazily
+	 */
+	protected boolean isLazyLoading() {
+		return Boolean.getBoolean(LAZY_LOADING_PROPERTY);
+	}
+
+	/**
+	 * Local method to get the resources that a translation depends on. These are:
+	 * 1) machines and contexts that are already loaded in the resource set
+	 * 2) the target component and the components it refines, sees or extends (transitively)
+	 * 3) components named by the translation descriptors that have been given to getComponentURI
+	 * and the components that they refine, sees or extend.
+	 * Any other resource is loaded on demand by EMF when a reference to it is resolved.
+	 * 
+	 * @param resourceSet
+	 * @param sourceElement
+	 * @return the resources
+	 * @throws IOException
+	 */
+	private Collection<Resource> getDependedOnResources(ResourceSet resourceSet, EObject sourceElement) throws IOException {
+		Set<Resource> affectedResources = new LinkedHashSet<Resource>();
+		for (Resource resource : new ArrayList<Resource>(resourceSet.getResources())) {
+			if (resource.isLoaded() && isComponentURI(resource.getURI())) {
+				affectedResources.add(resource);
+			}
+		}
+		Deque<Resource> pending = new ArrayDeque<Resource>();
+		Object targetComponent = getTargetComponent(sourceElement);
+		if (targetComponent instanceof EObject && ((EObject) targetComponent).eResource() != null) {
+			pending.add(((EObject) targetComponent).eResource());
+		}
+		for (URI uri : run().namedComponents) {
+			Resource resource = loadComponent(resourceSet, uri);
+			if (resource != null) pending.add(resource);
+		}
+		Set<Resource> visited = new HashSet<Resource>();
+		while (!pending.isEmpty()) {
+			Resource resource = pending.poll();
+			if (!visited.add(resource)) continue;
+			affectedResources.add(resource);
+			URI folder = resource.getURI().trimSegments(1);
+			for (EObject root : resource.getContents()) {
+				List<URI> dependencies = new ArrayList<URI>();
+				if (root instanceof Machine) {
+					for (String name : ((Machine) root).getRefinesNames()) {
+						dependencies.add(folder.appendSegment(name).appendFileExtension("bum"));
+					}
+					for (String name : ((Machine) root).getSeesNames()) {
+						dependencies.add(folder.appendSegment(name).appendFileExtension("buc"));
+					}
+				} else if (root instanceof Context) {
+					for (String name : ((Context) root).getExtendsNames()) {
+						dependencies.add(folder.appendSegment(name).appendFileExtension("buc"));
+					}
+				}
+				for (URI uri : dependencies) {
+					Resource dependency = loadComponent(resourceSet, uri);
+					if (dependency != null) pending.add(dependency);
+				}
+			}
+		}
+		return new ArrayList<Resource>(affectedResources);
+	}
+
+	/**
+	 * Local method to get the loaded resource for a machine or context, loading it if the file exists
+	 * 
+	 * @param resourceSet
+	 * @param uri
+	 * @return the resource or null if there is no such component
+	 * @throws IOException
+	 */
+	private Resource loadComponent(ResourceSet resourceSet, URI uri) throws IOException {
+		Resource resource = resourceSet.getResource(uri, false);
+		if (resource == null) {
+			if (!uri.isPlatformResource() || !ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(uri.toPlatformString(true))).exists()) {
+				return null;
+			}
+			resource = resourceSet.createResource(uri);
+		}
+		if (!resource.isLoaded()) {
+			resource.load(Collections.emptyMap());
+			Instrumentation.count(Counter.RESOURCES_LOADED, 1);
+		}
+		return resource.isLoaded()? resource : null;
+	}
+
+	private boolean isComponentURI(URI uri) {
+		return uri != null && ("bum".equals(uri.fileExtension()) || "buc".equals(uri.fileExtension()));
+	}
+
 
 	/**
 	 * {@inheritDoc}
 	 * 
 	 * EventBTranslatorAdapter implementation:
-	 * defers to super
+	 * In incremental mode, filters out (i.e. returns false) anything translated for an extension whose 
+	 * previously generated elements are up to date. 
+	 * When the result of the translation has been found in the translation result cache, filters out everything.
+	 * Otherwise defers to super
 	 * 
+	 * @see #isIncremental()
+	 * @see #isResultCaching()
 	 */
 	@Override
 	public boolean inputFilter(Object object,  String translationId) {
+		if (run().replayed) {
+			return false;
+		}
+		if (isIncremental() && isUnchangedExtension(object, translationId)) {
+			return false;
+		}
 		return super.inputFilter(object, translationId);
 	}
+
+	/**
+	 * Whether translations should be incremental.
+	 * In incremental mode, each generated element is marked with a fingerprint of the content of the extension it was generated from.
+	 * An extension whose generated elements all carry its current fingerprint is not translated again and its generated elements are kept.
+	 * Only the target component is checked, so an extension that also writes to other components is always translated again.
+	 * This is only correct for translators whose output depends on nothing but the content of the extension being translated.
+	 * By default this is switched on by setting the system property INCREMENTAL_PROPERTY to true;
+	 * extensions can override this to choose for themselves.
+	 * 
+	 * @see #INCREMENTAL_PROPERTY
+	 * @see #TRANSLATOR__FINGERPRINT_KEY
+	 * @return true if translation is incremental
+	 */
+	protected boolean isIncremental() {
+		return Boolean.getBoolean(INCREMENTAL_PROPERTY);
+	}
+
+	/**
+	 * Whether translation results should be cached on disk.
+	 * A translation whose target component, the components in its scope and the rule set (see getRuleSetId) are as they were
+	 * when a previous translation succeeded, and whose translated components have not changed since, is not run again;
+	 * the elements generated by the previous translation are kept.
+	 * This is only correct for translators whose output depends on nothing but the content of those components.
+	 * By default this is switched on by setting the system property RESULT_CACHE_PROPERTY to true;
+	 * extensions can override this to choose for themselves.
+	 * 
+	 * @see #RESULT_CACHE_PROPERTY
+	 * @see ac.soton.emf.translator.eventb.adapter.TranslationResultCache
+	 * @return true if translation results are cached
+	 */
+	protected boolean isResultCaching() {
+		return Boolean.getBoolean(RESULT_CACHE_PROPERTY);
+	}
+
+	/**
+	 * Identifies the rules of the translation, as part of the key of the translation result cache.
+	 * By default this is the name of the adapter class and the versions of the bundles of the adapter and of this plugin,
+	 * so that cached results are not used after either has been updated.
+	 * Extensions whose rules are not in the same bundle as their adapter should override this.
+	 * 
+	 * @see #isResultCaching()
+	 * @return an identifier of the rule set and its version
+	 */
+	protected String getRuleSetId() {
+		return getClass().getName()+"/"+bundleVersion(getClass())+"/"+bundleVersion(EventBTranslatorAdapter.class);
+	}
+
+	private static String bundleVersion(Class<?> clazz) {
+		Bundle bundle = FrameworkUtil.getBundle(clazz);
+		return bundle == null? "" : bundle.getVersion().toString();
+	}
+
+	/**
+	 * Local method to check whether the translation ID, or the extension containing the object, identifies an unchanged extension
+	 * 
+	 * @param object
+	 * @param translationId
+	 * @return true if the extension is unchanged
+	 */
+	private boolean isUnchangedExtension(Object object, String translationId) {
+		ExtensionFingerprints fingerprints = run().fingerprints;
+		if (fingerprints.isUnchanged(translationId)) return true;
+		if (object instanceof EventBObject) {
+			EObject extension = object instanceof AbstractExtension? (EObject) object :
+				((EventBObject)object).getContaining(CorePackage.Literals.ABSTRACT_EXTENSION);
+			if (extension instanceof AbstractExtension && ((AbstractExtension) extension).getExtensionId() != null) {
+				return fingerprints.isUnchanged("::"+((AbstractExtension) extension).getExtensionId());
+			}
+		}
+		return false;
+	}
 	
 	/**
 	 * {@inheritDoc}
@@ -279,10 +581,74 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * 1) invariants and axioms which are already present in the parent or in scope via context extension/sees or machine refinement
 	 * 2) features of the parent event which are already present or present via event extension
 	 * 3) anything filtered out by super
+	 * Removal descriptors are not filtered out (the checks are for values that are to be added).
+	 * During a dry run, everything is filtered out after reporting whether it would have been added, and where,
+	 * or, for a removal descriptor, after reporting its value as removed.
 	 * 
+	 * @see DryRun
 	 */
 	@Override
 	public boolean outputFilter(TranslationDescriptor translationDescriptor) {
+		Timer timer = Instrumentation.start(Phase.OUTPUT_FILTER);
+		try {
+			boolean output = translationDescriptor.remove || filterOutput(translationDescriptor);
+			Instrumentation.count(Counter.DESCRIPTORS_PRODUCED, 1);
+			if (!output) Instrumentation.count(Counter.DESCRIPTORS_FILTERED, 1);
+			DryRun dryRun = DryRun.current();
+			if (isIncremental() && dryRun == null && !translationDescriptor.remove) {
+				checkWrittenElsewhere(translationDescriptor);
+			}
+			if (dryRun != null) {
+				if (translationDescriptor.remove) {
+					dryRun.removed(translationDescriptor);
+				} else {
+					report(dryRun, translationDescriptor, output);
+				}
+				return false;
+			}
+			return output;
+		} finally {
+			timer.end();
+		}
+	}
+
+	/**
+	 * Local method used by outputFilter in incremental mode.
+	 * If the descriptor adds to something outside the target component, the extension that it was translated from
+	 * (identified by the translation ID of its value or else by its source) is one whose output is not all checked
+	 * at the start of a run, so its generated elements are marked to have it translated again next time.
+	 * 
+	 * @see ac.soton.emf.translator.eventb.adapter.ExtensionFingerprints
+	 * 
+	 * @param translationDescriptor
+	 */
+	private void checkWrittenElsewhere(TranslationDescriptor translationDescriptor) {
+		ExtensionFingerprints fingerprints = run().fingerprints;
+		if (!fingerprints.isOutside(translationDescriptor.parent)) return;
+		String translationId = null;
+		if (translationDescriptor.value instanceof EventBElement) {
+			Attribute attribute = ((EventBElement)translationDescriptor.value).getAttributes().get(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
+			if (attribute != null && attribute.getValue() instanceof String) translationId = (String) attribute.getValue();
+		}
+		if (ExtensionFingerprints.extensionId(translationId) == null && translationDescriptor.source instanceof EventBObject) {
+			EObject extension = translationDescriptor.source instanceof AbstractExtension? translationDescriptor.source :
+				((EventBObject)translationDescriptor.source).getContaining(CorePackage.Literals.ABSTRACT_EXTENSION);
+			if (extension instanceof AbstractExtension && ((AbstractExtension) extension).getExtensionId() != null) {
+				translationId = "::"+((AbstractExtension) extension).getExtensionId();
+			}
+		}
+		for (EventBElement element : fingerprints.writesElsewhere(translationId)) {
+			setAttribute(element, TRANSLATOR__FINGERPRINT_KEY, fingerprints.fingerprintOf(translationId), AttributeType.STRING);
+		}
+	}
+
+	/**
+	 * Local method implementing outputFilter
+	 * 
+	 * @param translationDescriptor
+	 * @return false if the descriptor should be filtered out
+	 */
+	private boolean filterOutput(TranslationDescriptor translationDescriptor) {
 		
 		//filter any new elements that are already there 	
 		if (translationDescriptor.parent!=null) { //if no parent we cannot check
@@ -294,27 +660,87 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 						(EventBNamedCommentedPredicateElement) translationDescriptor.value);
 			}
 			if (featureValue instanceof EList){
-				EList<?> list = (EList<?>)featureValue;
-				for (Object el : list){
-					if (match(el,translationDescriptor.value)) 
+				DryRun removals = removals();
+				MatchIndex index = removals != null? null : getMatchIndex(translationDescriptor.parent, translationDescriptor.feature);
+				if (index != null) {
+					if (index.contains(translationDescriptor.value))
 						return false;
+				}else {
+					EList<?> list = (EList<?>)featureValue;
+					for (Object el : list){
+						if (!isRemoved(removals, el) && match(el,translationDescriptor.value)) 
+							return false;
+					}
 				}
 			}
 
 			// filter any new values which are already present by event extension
 			if (translationDescriptor.parent instanceof Event){
-				for (Object el : getExtendedValues((Event)translationDescriptor.parent,translationDescriptor.feature)){
-					if (match(el,translationDescriptor.value)) 
-						return false;
-				}
+				if (isExtendedValue((Event)translationDescriptor.parent, translationDescriptor.feature, translationDescriptor.value))
+					return false;
 			}
 		}
 		return super.outputFilter(translationDescriptor);
 	}
 
+	/**
+	 * Local method used by outputFilter during a dry run.
+	 * Reports the descriptor as an addition or as filtered out. As the additions are not made, an addition to a list
+	 * is also checked against the additions reported for the list so far. As neither the additions nor the removals are made,
+	 * its position is found in the list as it would be by then (see DryRun.view).
+	 * 
+	 * @param dryRun
+	 * @param translationDescriptor
+	 * @param output - whether outputFilter would let the descriptor through
+	 */
+	private void report(DryRun dryRun, TranslationDescriptor translationDescriptor, boolean output) {
+		if (translationDescriptor.parent==null || translationDescriptor.feature==null || !translationDescriptor.feature.isMany()) {
+			if (output) dryRun.added(translationDescriptor); else dryRun.filtered(translationDescriptor);
+			return;
+		}
+		List<?> list = (List<?>) translationDescriptor.parent.eGet(translationDescriptor.feature);
+		MatchKey key = !defaultMatch? null :
+			MachinePackage.Literals.MACHINE__INVARIANTS.equals(translationDescriptor.feature) ||
+			ContextPackage.Literals.CONTEXT__AXIOMS.equals(translationDescriptor.feature)? MatchKey.ofPredicate(translationDescriptor.value)
+			: MatchKey.of(translationDescriptor.value);
+		if (!output || dryRun.isAdded(list, key)) {
+			dryRun.filtered(translationDescriptor);
+			return;
+		}
+		List<?> view = dryRun.view(list);
+		int pos = translationDescriptor.before==null? -1 : view.indexOf(translationDescriptor.before);
+		if (pos < 0) pos = position(view, translationDescriptor.value);
+		dryRun.added(translationDescriptor, list, key, pos);
+	}
+
+	/**
+	 * Local method used by outputFilter.
+	 * 
+	 * @return the dry run in progress on the current thread if it has reported any removals, otherwise null
+	 */
+	private static DryRun removals() {
+		DryRun dryRun = DryRun.current();
+		return dryRun != null && dryRun.hasRemovals()? dryRun : null;
+	}
+
+	/**
+	 * Local method used by outputFilter.
+	 * 
+	 * @param removals - the dry run in progress, or null
+	 * @param element
+	 * @return whether the element has been reported as removed by the dry run, so that it would not be there to match
+	 */
+	private static boolean isRemoved(DryRun removals, Object element) {
+		return removals != null && removals.isRemoved(element);
+	}
+
 	/**
 	 * Local method used by outputFilter.
 	 * Prevents repeating invariants and axioms when they are already in scope via machine/context relationships.
+	 * The constraints in scope of each component are combined into a set once per translation run.
+	 * During a dry run that has reported removals, the constraints reported as removed are ignored.
+	 * 
+	 * @see ac.soton.emf.translator.eventb.adapter.ConstraintScope
 	 * 
 	 * @param component
 	 * @param newConstraint
@@ -322,32 +748,101 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * @since 0.1
 	 */
 	protected boolean constraintFilter (EventBNamedCommentedComponentElement component, EventBNamedCommentedPredicateElement newConstraint) {
-		EList<? extends EventBNamedCommentedPredicateElement> constraintsToCheck = null;
-		List<EventBNamedCommentedComponentElement> inScope = new ArrayList<EventBNamedCommentedComponentElement>();
-		if (component instanceof Machine) {
-			inScope.addAll(((Machine)component).getRefines());
-			inScope.addAll(((Machine)component).getSees());
-			constraintsToCheck = ((Machine)component).getInvariants();
-		}
-		if (component instanceof Context) {
-			inScope.addAll(((Context)component).getExtends());
-			constraintsToCheck = ((Context)component).getAxioms();
-		}
-		for (EventBNamedCommentedPredicateElement existingConstraint : constraintsToCheck){
-			if (stringEquivalent(
-					((EventBNamedCommentedPredicateElement)existingConstraint).getPredicate(),
-					((EventBNamedCommentedPredicateElement)newConstraint).getPredicate()
-					)
-					){
-				return false;			
+		DryRun removals = removals();
+		AdapterRun run = run();
+		Boolean inScope = removals != null || !run.cached? null : run.constraintScope.inScope(component, newConstraint);
+		if (inScope != null) return !inScope;
+		// the indexes cannot be used (or do not know about the removals of a dry run, or cannot be kept), check each component in scope
+		for (EventBNamedCommentedComponentElement cp : ConstraintScope.scopeOf(component)) {
+			EStructuralFeature feature = ConstraintScope.constraintsFeature(cp);
+			if (feature == null) continue;
+			for (Object existingConstraint : (List<?>) cp.eGet(feature)){
+				if (!isRemoved(removals, existingConstraint) && stringEquivalent(
+						((EventBNamedCommentedPredicateElement)existingConstraint).getPredicate(),
+						newConstraint.getPredicate()
+						)
+						){
+					return false;			
+				}
 			}
 		}
-		for (EventBNamedCommentedComponentElement  cp1 : inScope) {
-			if (cp1!=component && constraintFilter(cp1, newConstraint) == false) return false;
-		}
 		return true;
 	}
 
+	/**
+	 * Local method used by outputFilter.
+	 * for a particular feature, whether the value matches an element which is present by event extension.
+	 * Uses the cached extension view of the event if possible
+	 * (not during a dry run that has reported removals, which the view does not know about, nor in an unmanaged translation context).
+	 * 
+	 * @see ac.soton.emf.translator.eventb.adapter.ExtensionView
+	 * 
+	 * @param event
+	 * @param feature
+	 * @param value
+	 * @return whether a matching element is present by event extension
+	 */
+	private boolean isExtendedValue(Event event, EStructuralFeature feature, Object value) {
+		DryRun removals = removals();
+		AdapterRun run = run();
+		if (defaultMatch && removals == null && run.cached) {
+			List<?> list = (List<?>) event.eGet(feature);
+			Map<List<?>,ExtensionView> extensionViews = run.extensionViews;
+			ExtensionView view = extensionViews.get(list);
+			if (view == null) {
+				view = new ExtensionView(this, event, feature);
+				extensionViews.put(list, view);
+			}
+			if (view.validate()) {
+				return view.contains(MatchKey.of(value));
+			}
+		}
+		for (Object el : getExtendedValues(event, feature)){
+			if (!isRemoved(removals, el) && match(el,value)) 
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Local method used by outputFilter.
+	 * Gets (creating it if necessary) the match index for the given (parent, feature) list
+	 * or null if the index cannot be used (or kept, in an unmanaged translation context).
+	 * The index of an event list also reports changes to the extended and refines properties of the event.
+	 * 
+	 * @param parent
+	 * @param feature
+	 * @return the match index or null
+	 */
+	MatchIndex getMatchIndex(EObject parent, EStructuralFeature feature) {
+		AdapterRun run = run();
+		if (!defaultMatch || !run.cached) return null;
+		List<?> list = (List<?>) parent.eGet(feature);
+		Map<List<?>,MatchIndex> matchIndices = run.matchIndices;
+		MatchIndex index = matchIndices.get(list);
+		if (index == null) {
+			index = parent instanceof Event?
+					new MatchIndex(parent, feature, false, MachinePackage.Literals.EVENT__EXTENDED, MachinePackage.Literals.EVENT__REFINES)
+					: new MatchIndex(parent, feature, false);
+			matchIndices.put(list, index);
+		}
+		return index.isUsable()? index : null;
+	}
+
+	/**
+	 * Local method to check whether the match method is the one implemented here,
+	 * which is the method that the match indexes are equivalent to.
+	 * 
+	 * @return
+	 */
+	private boolean isDefaultMatch() {
+		try {
+			return getClass().getMethod("match", Object.class, Object.class).getDeclaringClass() == EventBTranslatorAdapter.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
 	/**
 	 * Local method used by outputFilter.
 	 * for a particular feature, transitively get all the elements which are present by event extension
@@ -406,11 +901,7 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	}
 
 	private boolean stringEquivalent(String s1, String s2) {
-		if (s1==null) return s2==null;
-		if (s2==null) return false;
-		String s1r = s1.replaceAll("\\s", "");
-		String s2r = s2.replaceAll("\\s", "");
-		return s1r.equals(s2r);
+		return WhitespaceInsensitive.equivalent(s1, s2);
 	}
 
 	////end of match
@@ -423,16 +914,29 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * using "::" as a separator. The part from the source element depends on its type.
 	 * For a AbstractExtension it is the Extension ID and for a EventBelement it is its reference ID.
 	 * If it is neither of these, defer to super.
+	 * The translation ID of each basic ID and source element is made once per translation run in a managed translation context
+	 * (the source elements are not expected to change while they are translated).
 	 * 
 	 */
 	@Override
 	public String getTranslationId(String basicTranslatorID, Object rootSourceElement){
-		return  rootSourceElement instanceof AbstractExtension ? 
-					basicTranslatorID+"::"+((AbstractExtension)rootSourceElement).getExtensionId()
-			:	rootSourceElement instanceof EventBElement ? 
-					basicTranslatorID+"::"+((EventBElement)rootSourceElement).getReference()
-			:
-				super.getTranslationId(basicTranslatorID, rootSourceElement);
+		if (!(rootSourceElement instanceof AbstractExtension || rootSourceElement instanceof EventBElement)) {
+			return super.getTranslationId(basicTranslatorID, rootSourceElement);
+		}
+		AdapterRun run = run();
+		Map<String,String> ids = run.translationIds.get(rootSourceElement);
+		if (ids == null) {
+			ids = new HashMap<String,String>(4);
+			if (run.cached) run.translationIds.put(rootSourceElement, ids);
+		}
+		String translationId = ids.get(basicTranslatorID);
+		if (translationId == null) {
+			translationId = run.intern(rootSourceElement instanceof AbstractExtension ? 
+						basicTranslatorID+"::"+((AbstractExtension)rootSourceElement).getExtensionId()
+					:	basicTranslatorID+"::"+((EventBElement)rootSourceElement).getReference());
+			ids.put(basicTranslatorID, translationId);
+		}
+		return translationId;
 	}
 
 	/**
@@ -454,10 +958,19 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 				// set the generated property
 				((EventBElement)target).setLocalGenerated(true);				
 				// add an attribute with this translation ID
-				Attribute attribute =   CoreFactory.eINSTANCE.createAttribute();
-				attribute.setValue(translationID);
-				attribute.setType(AttributeType.STRING);
-				((EventBElement)target).getAttributes().put(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY,attribute);
+				setAttribute((EventBElement)target, AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY, run().intern(translationID), AttributeType.STRING);
+				// mark it with the fingerprint of the extension it came from
+				if (isIncremental()) {
+					ExtensionFingerprints fingerprints = run().fingerprints;
+					String fingerprint = fingerprints.fingerprintOf(translationID);
+					if (fingerprint != null) {
+						setAttribute((EventBElement)target, TRANSLATOR__FINGERPRINT_KEY, fingerprint, AttributeType.STRING);
+						fingerprints.marked(translationID, (EventBElement)target);
+					}
+				}
+				// record the extension position for placement
+				run().placementKeys.get(target).setExtensionPosition(extensionPosition(target, translationID));
+				placementChanged((EventBElement)target);
 		}else{
 			super.setGeneratedBy(target, translationID);
 		}	
@@ -472,15 +985,27 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 *    key is AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY and whose
 	 *    value matches the translationID.
 	 *    and false if not.
+	 * In incremental mode, returns false for the elements generated by an unchanged extension, so that they are kept.
+	 * When the result of the translation has been found in the translation result cache, returns false so that everything is kept.
+	 * During a dry run, reports the elements that were generated by the translation ID as removals and returns false, so that they are kept.
 	 * Otherwise defers to super.
 	 * @see AttributeIdentifiers
+	 * @see #isIncremental()
 	 * 
 	 */
 	@Override
 	public boolean wasGeneratedBy(Object target, String translationId) {
+		if (run().replayed) return false;
 		if (target instanceof EventBElement && translationId!=null){
+			if (isIncremental() && run().fingerprints.isUnchanged(translationId)) return false;
 			Attribute attribute = ((EventBElement)target).getAttributes().get(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
-			return attribute!= null && translationId.equals(attribute.getValue());
+			boolean generated = attribute!= null && translationId.equals(attribute.getValue());
+			DryRun dryRun = DryRun.current();
+			if (generated && dryRun != null) {
+				dryRun.removed((EventBElement)target);
+				return false;
+			}
+			return generated;
 		}
 		return super.wasGeneratedBy(target, translationId);
 	}
@@ -493,20 +1018,57 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 * adds to target, a string attribute whose
 	 *   key is AttributeIdentifiers.TRANSLATOR__SOURCE_ELEMENT_KEY and whose
 	 *   value is the the uri of the source as a string.
+	 *   The uri of each source element is worked out once per translation run.
 	 * Otherwise defers to super
 	 * @see AttributeIdentifiers
 	 */
 	public void setSourceElement(Object target, Object source) {
 		if (target instanceof EventBElement && source instanceof EventBElement) {
-			Attribute attribute =   CoreFactory.eINSTANCE.createAttribute();
-			attribute.setValue(EcoreUtil.getURI((EObject)source).toString());
-			attribute.setType(AttributeType.STRING);
-			((EventBElement)target).getAttributes().put(AttributeIdentifiers.TRANSLATOR__SOURCE_ELEMENT_KEY,attribute);
+			setAttribute((EventBElement)target, AttributeIdentifiers.TRANSLATOR__SOURCE_ELEMENT_KEY, sourceURI((EObject)source), AttributeType.STRING);
 		}else {
 			super.setSourceElement(target, source);
 		}
 	}
 	
+	/**
+	 * Local method to write a translator attribute of an element.
+	 * An attribute that the element already has with the same key and type is updated rather than replaced,
+	 * so re-translating an element does not allocate new attributes. The stored form is the same either way.
+	 * 
+	 * @param element
+	 * @param key
+	 * @param value - (string values should be interned for the run so that elements share them)
+	 * @param type
+	 */
+	private void setAttribute(EventBElement element, String key, Object value, AttributeType type) {
+		Attribute attribute = element.getAttributes().get(key);
+		if (attribute != null && attribute.getType() == type) {
+			if (!value.equals(attribute.getValue())) attribute.setValue(value);
+			return;
+		}
+		attribute = CoreFactory.eINSTANCE.createAttribute();
+		attribute.setValue(value);
+		attribute.setType(type);
+		element.getAttributes().put(key,attribute);
+	}
+
+	/**
+	 * Local method used by setSourceElement to get the uri of a source element as a string,
+	 * which is cached for the rest of the translation run (in a managed translation context) since working it out walks up the containment tree.
+	 * 
+	 * @param source
+	 * @return the uri string
+	 */
+	private String sourceURI(EObject source) {
+		AdapterRun run = run();
+		String uri = run.sourceURIs.get(source);
+		if (uri == null) {
+			uri = run.intern(EcoreUtil.getURI(source).toString());
+			if (run.cached) run.sourceURIs.put(source, uri);
+		}
+		return uri;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -523,10 +1085,10 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 		if (object instanceof EventBElement){
 			EventBElement element = (EventBElement)object;
 			// add an attribute with the priority for ordering
-			Attribute attribute =   CoreFactory.eINSTANCE.createAttribute();
-			attribute.setValue(priority);
-			attribute.setType(AttributeType.INTEGER);
-			element.getAttributes().put(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY,attribute);
+			setAttribute(element, AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY, priority, AttributeType.INTEGER);
+			// record the priority for placement
+			run().placementKeys.get(element).setPriority(priority);
+			placementChanged(element);
 		}
 	}
 
@@ -542,7 +1104,38 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 */
 	@Override
 	public int getPos(List<?> list, Object object) {
+		Timer timer = Instrumentation.start(Phase.GET_POS);
+		try {
+			return position(list, object);
+		} finally {
+			timer.end();
+		}
+	}
+
+	/**
+	 * Local method implementing getPos
+	 * 
+	 * @param list
+	 * @param object
+	 * @return the position at which to insert the object
+	 */
+	private int position(List<?> list, Object object) {
+		if (object instanceof EventBElement && TranslationContext.current() == null) {
+			// no translation is running on this thread, work out the position in a context of its own
+			// with the extension order of the component of the list
+			TranslationContext.beginUnmanaged();
+			try {
+				buildExtensionOrder(run(), list instanceof EStructuralFeature.Setting? ((EStructuralFeature.Setting)list).getEObject() : object);
+				return position(list, object);
+			} finally {
+				TranslationContext.end();
+			}
+		}
 		if(object instanceof EventBElement){
+			PlacementIndex index = getPlacementIndex(list);
+			if (index != null) {
+				return index.getPos(placementKey(object));
+			}
 			//calculate the correct index - i.e. after any higher priority elements and
 			//after stuff translated by earlier extensions which have the same priority
 			int pri = getPriority(object);
@@ -571,12 +1164,89 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 		}
 	}
 
+	/**
+	 * Local method used by getPos.
+	 * Combines the priority and extension position of the given object into a single key so that
+	 * an element should be placed after every element whose key is less than or equal to its own key.
+	 * I.e. priority order 1..10,0,-1..-10 and, for equal priorities, extension order.
+	 * The priority rank takes the upper bits and the extension position (any int) the lower 32 bits, so that the key is never negative.
+	 * To fit, priorities are clamped to +/-PRIORITY_LIMIT, far outside the range that is used.
+	 * Objects that are not EventBElements have no key (PlacementIndex.NO_KEY).
+	 * 
+	 * @param object
+	 * @return the placement key of the object
+	 */
+	long placementKey(Object object) {
+		if (!(object instanceof EventBElement)) return PlacementIndex.NO_KEY;
+		int pri = getPriority(object);
+		long rank = pri > 0 ? Math.min(pri, PRIORITY_LIMIT) - 1 : PRIORITY_LIMIT + Math.min(-(long)pri, PRIORITY_LIMIT);
+		return (rank << 32) | ((long)getExtensionPosition(object) - Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Local method used by getPos.
+	 * Gets (creating it if necessary) the placement index for the given list
+	 * or null if the list is not a notifying feature list of an EObject or the index cannot be kept (in an unmanaged translation context).
+	 * 
+	 * @param list
+	 * @return the placement index or null
+	 */
+	private PlacementIndex getPlacementIndex(List<?> list) {
+		AdapterRun run = run();
+		if (!run.cached) return null;
+		Map<List<?>,PlacementIndex> placementIndices = run.placementIndices;
+		PlacementIndex index = placementIndices.get(list);
+		if (index == null) {
+			if (!(list instanceof EStructuralFeature.Setting)) return null;
+			EObject owner = ((EStructuralFeature.Setting)list).getEObject();
+			EStructuralFeature feature = ((EStructuralFeature.Setting)list).getEStructuralFeature();
+			if (owner == null || feature == null || owner.eGet(feature) != list) return null;
+			index = new PlacementIndex(this, owner, feature);
+			placementIndices.put(list, index);
+		}
+		return index.isUsable()? index : null;
+	}
+
+	/**
+	 * Local method used when the placement attributes of an element are written.
+	 * If the element is already in a list with a placement index, its cached key is out of date.
+	 * 
+	 * @param element
+	 */
+	private void placementChanged(EventBElement element) {
+		if (element.eContainer()!=null && element.eContainmentFeature().isMany()) {
+			PlacementIndex index = run().placementIndices.get(element.eContainer().eGet(element.eContainmentFeature()));
+			if (index != null) index.elementChanged(element);
+		}
+	}
+
+	/**
+	 * Local method to get the state kept for the translation running on the current thread.
+	 * If there is no translation context (i.e. the adapter has not been initialised on this thread)
+	 * a new run is returned, which is not kept, so that the caller works everything out without caches.
+	 * 
+	 * @return the state of the current translation run
+	 */
+	private AdapterRun run() {
+		TranslationContext context = TranslationContext.current();
+		if (context == null) {
+			return new AdapterRun(null);
+		}
+		AdapterRun run = (AdapterRun) context.getAttachment(this);
+		if (run == null) {
+			run = new AdapterRun(context);
+			context.attach(this, run);
+		}
+		return run;
+	}
+
 	
 	/**
 	 * Local method to get the priority value of the given object.
 	 * If the object is an EventBObject and has an attribute with key AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY
 	 * the attributes value is returned.
 	 * Otherwise return 0.
+	 * The value is cached for the rest of the translation run if it runs in a managed translation context.
 	 * @see AttributeIdentifiers
 	 * 
 	 * @param object
@@ -584,10 +1254,14 @@ public class EventBTranslatorAdapter extends DefaultAdapter implements IAdapter
 	 */
 	protected int getPriority(Object object) {
 		if (object instanceof EventBObject){
-			Attribute attribute= ((EventBElement)object).getAttributes().get(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY);
-			Integer pri = (Integer) (attribute==null? null : attribute.getValue());
-			if (pri==null) pri = 0; // no priority => user stuff at priority 0
-			return pri;
+			PlacementKeyCache.Keys keys = run().placementKeys.get(object);
+			if (!keys.priorityKnown) {
+				Attribute attribute= ((EventBElement)object).getAttributes().get(AttributeIdentifiers.TRANSLATOR__PLACEMENT_PRIORITY_KEY);
+				Integer pri = (Integer) (attribute==null? null : attribute.getValue());
+				if (pri==null) pri = 0; // no priority => user stuff at priority 0
+				keys.setPriority(pri);
+			}
+			return keys.priority;
 		}else{
 			return 0;
 		}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.Attribute;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.EventBObject;
+
+import ac.soton.emf.translator.configuration.AttributeIdentifiers;
+import ac.soton.emf.translator.eventb.utils.ContentDigest;
+
+/**
+ * Content fingerprints of the extensions of a target component, used for incremental translation.
+ *
+ * Each element generated from an extension is marked with the fingerprint the extension had when it was translated.
+ * At the start of a run, the current fingerprint of each extension is compared with the marks on its generated elements.
+ * An extension is unchanged if it has generated elements and they all carry its current fingerprint.
+ * The output of an unchanged extension is left as it is and the extension is not translated again.
+ *
+ * The fingerprint is the content digest of the extension (all its contained elements, their attributes
+ * and the URIs of the elements they refer to). Incremental translation is therefore only correct for translators
+ * whose output depends on nothing but the extension being translated.
+ *
+ * Only the generated elements in the target component are looked at, since the other components are not loaded
+ * when a run starts. An extension that also writes to other components is therefore never found unchanged:
+ * once one of its translation descriptors is seen to write outside the target component, its generated elements
+ * in the target component are marked ELSEWHERE instead of with its fingerprint, and it is translated again on the next run.
+ *
+ * @see EventBTranslatorAdapter#isIncremental()
+ *
+ * @author cfs
+ *
+ */
+class ExtensionFingerprints {
+
+	/**
+	 * stands for the marks of an extension's generated elements when they are missing or do not all agree
+	 * (a fingerprint is a hex digest so it can never be equal to this)
+	 */
+	private static final String MIXED = "-";
+
+	/**
+	 * the mark of the generated elements of an extension that also writes to other components
+	 * (which, like MIXED, can never be equal to a fingerprint)
+	 */
+	private static final String ELSEWHERE = "*";
+
+	/**
+	 * the target component of the run
+	 */
+	private EventBObject targetComponent = null;
+
+	/**
+	 * fingerprints of the extensions as they are now
+	 * The key(String) is the extension ID
+	 */
+	private final Map<String,String> current = new HashMap<String,String>();
+
+	/**
+	 * extension IDs of the extensions whose generated elements are up to date
+	 */
+	private final Set<String> unchanged = new HashSet<String>();
+
+	/**
+	 * extension IDs of the extensions that have been seen to write outside the target component during the run
+	 */
+	private final Set<String> elsewhere = new HashSet<String>();
+
+	/**
+	 * the elements marked during the run, which are marked again if their extension turns out to write elsewhere
+	 * The key(String) is the extension ID
+	 */
+	private final Map<String,List<EventBElement>> marked = new HashMap<String,List<EventBElement>>();
+
+	/**
+	 * Fingerprints the extensions of the target component and finds the ones whose generated elements are up to date.
+	 * The extensions and the marks on the generated elements are collected in a single traversal of the component.
+	 *
+	 * @param targetComponent
+	 */
+	void initialise(EventBObject targetComponent) {
+		clear();
+		this.targetComponent = targetComponent;
+		// the fingerprint marked on all the generated elements of each extension, or MIXED if they do not agree
+		Map<String,String> marks = new HashMap<String,String>();
+		for (Iterator<EObject> it = targetComponent.eAllContents(); it.hasNext(); ) {
+			EObject element = it.next();
+			if (element instanceof AbstractExtension && ((AbstractExtension) element).getExtensionId() != null) {
+				current.put(((AbstractExtension) element).getExtensionId(), fingerprint(element));
+			}
+			if (!(element instanceof EventBElement)) continue;
+			String extensionId = extensionId(getValue((EventBElement) element, AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY));
+			if (extensionId == null) continue;
+			String mark = getValue((EventBElement) element, EventBTranslatorAdapter.TRANSLATOR__FINGERPRINT_KEY);
+			if (mark == null) mark = MIXED;
+			String previous = marks.put(extensionId, mark);
+			if (previous != null && !previous.equals(mark)) marks.put(extensionId, MIXED);
+		}
+		for (Map.Entry<String,String> mark : marks.entrySet()) {
+			if (mark.getValue().equals(current.get(mark.getKey()))) {
+				unchanged.add(mark.getKey());
+			}
+		}
+	}
+
+	/**
+	 * @param translationId
+	 * @return true if the translation ID identifies an extension whose generated elements are up to date
+	 */
+	boolean isUnchanged(String translationId) {
+		String extensionId = extensionId(translationId);
+		return extensionId != null && unchanged.contains(extensionId);
+	}
+
+	/**
+	 * @param translationId
+	 * @return the mark for the elements generated by the extension identified by the translation ID:
+	 * its current fingerprint, ELSEWHERE if it writes to other components, or null if there is no such extension
+	 */
+	String fingerprintOf(String translationId) {
+		String extensionId = extensionId(translationId);
+		if (extensionId == null) return null;
+		return elsewhere.contains(extensionId) && current.containsKey(extensionId)? ELSEWHERE : current.get(extensionId);
+	}
+
+	/**
+	 * records that the element has been marked with the mark of the extension identified by the translation ID
+	 *
+	 * @param translationId
+	 * @param element
+	 */
+	void marked(String translationId, EventBElement element) {
+		String extensionId = extensionId(translationId);
+		if (extensionId == null || elsewhere.contains(extensionId)) return;
+		List<EventBElement> elements = marked.get(extensionId);
+		if (elements == null) {
+			elements = new ArrayList<EventBElement>();
+			marked.put(extensionId, elements);
+		}
+		elements.add(element);
+	}
+
+	/**
+	 * @param parent - the parent of a translation descriptor
+	 * @return true if the descriptor adds to something outside the target component (or to no parent at all, e.g. a new component)
+	 */
+	boolean isOutside(EObject parent) {
+		return targetComponent != null && (parent == null || !EcoreUtil.isAncestor(targetComponent, parent));
+	}
+
+	/**
+	 * Records that the extension identified by the translation ID writes outside the target component
+	 *
+	 * @param translationId
+	 * @return the elements that have already been marked with the fingerprint of the extension during the run,
+	 *  which need to be marked again (see fingerprintOf)
+	 */
+	List<EventBElement> writesElsewhere(String translationId) {
+		String extensionId = extensionId(translationId);
+		if (extensionId == null || !elsewhere.add(extensionId)) return Collections.emptyList();
+		List<EventBElement> elements = marked.remove(extensionId);
+		return elements == null? Collections.<EventBElement>emptyList() : elements;
+	}
+
+	void clear() {
+		targetComponent = null;
+		current.clear();
+		unchanged.clear();
+		elsewhere.clear();
+		marked.clear();
+	}
+
+	static String extensionId(String translationId) {
+		if (translationId == null || !translationId.contains("::")) return null;
+		return translationId.substring(translationId.lastIndexOf("::")+2);
+	}
+
+	private static String getValue(EventBElement element, String key) {
+		Attribute attribute = element.getAttributes().get(key);
+		return attribute == null || !(attribute.getValue() instanceof String)? null : (String) attribute.getValue();
+	}
+
+	/**
+	 * @param extension
+	 * @return a digest of the content of the extension
+	 */
+	static String fingerprint(EObject extension) {
+		return ContentDigest.of(extension);
+	}
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eventb.emf.core.AbstractExtension;
+import org.eventb.emf.core.EventBObject;
+
+/**
+ * The order/position of the extensions in the target component of one translation run.
+ *
+ * The positions are kept in an open addressing table of extension IDs and primitive int positions,
+ * which is rebuilt from scratch at the start of each run (and released at its end) so that its size
+ * follows the component being translated rather than everything an adapter has ever translated.
+ * Positions can be looked up by the extension ID part of a translation ID without extracting it as a new string.
+ *
+ * @see EventBTranslatorAdapter#getExtensionPosition(Object)
+ *
+ * @author cfs
+ *
+ */
+final class ExtensionOrder {
+
+	private static final String[] NO_KEYS = new String[0];
+	private static final int[] NO_VALUES = new int[0];
+	private static final int[] NO_FEATURES = new int[0];
+
+	/**
+	 * the feature IDs of the references of each extension class that can refer to another extension
+	 * (weakly keyed so that the classes of dynamic packages can be collected: the IDs, unlike the references themselves, do not refer back to the class)
+	 */
+	private static final Map<EClass,int[]> extensionReferences = Collections.synchronizedMap(new WeakHashMap<EClass,int[]>());
+
+	private String[] keys = NO_KEYS;
+	private int[] positions = NO_VALUES;
+	private int size = 0;
+
+	/**
+	 * the next position to be given out
+	 */
+	private int next = 0;
+
+	/**
+	 * whether a position has been given to an extension without an ID (which, as for the other extensions, moves the end position)
+	 */
+	private boolean unidentified = false;
+
+	/**
+	 * Replaces the content of the table with the positions of the extensions of the target component.
+	 * The extensions are numbered in containment order in a single traversal of the component,
+	 * which streams the contents rather than collecting the extensions first.
+	 * Each one is followed by the extensions it refers to through any of its single valued references,
+	 * which are moved to that position if they already have one.
+	 *
+	 * @param targetComponent
+	 */
+	void build(EventBObject targetComponent) {
+		clear();
+		for (Iterator<EObject> it = targetComponent.eAllContents(); it.hasNext(); ) {
+			EObject ae = it.next();
+			if (!(ae instanceof AbstractExtension)) continue;
+			String id = ((AbstractExtension) ae).getExtensionId();
+			if (id == null || !add(id)) continue;
+			EClass eClass = ae.eClass();
+			for (int featureID : extensionReferences(eClass)) {
+				Object rae = ae.eGet(eClass.getEStructuralFeature(featureID));
+				if (rae instanceof AbstractExtension) {
+					String rid = ((AbstractExtension) rae).getExtensionId();
+					if (rid == null) {
+						unidentified = true;
+						next++;
+					} else {
+						put(rid, next++);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the feature IDs of the single valued references declared by the given extension class, working them out the first time the class is seen.
+	 * Whether a reference holds an extension is checked on its value, as references can be typed with any class or interface
+	 * that an extension class implements.
+	 *
+	 * @param eClass
+	 * @return the feature IDs of the references in the class
+	 */
+	static int[] extensionReferences(EClass eClass) {
+		int[] references = extensionReferences.get(eClass);
+		if (references == null) {
+			List<EReference> found = new ArrayList<EReference>();
+			for (EReference r : eClass.getEReferences()) {
+				if (!r.isMany()) found.add(r);
+			}
+			references = found.isEmpty()? NO_FEATURES : new int[found.size()];
+			for (int i = 0; i < found.size(); i++) {
+				references[i] = eClass.getFeatureID(found.get(i));
+			}
+			extensionReferences.put(eClass, references);
+		}
+		return references;
+	}
+
+	/**
+	 * @param translationId
+	 * @return the position of the extension identified by the part of the translation ID after its last "::",
+	 *  or the end position if the translation ID does not identify one of the extensions
+	 */
+	int positionOf(String translationId) {
+		if (translationId == null || size == 0) return end();
+		int from = translationId.lastIndexOf("::");
+		if (from < 0) return end();
+		from += 2;
+		int length = translationId.length() - from;
+		int h = 0;
+		for (int i = from; i < translationId.length(); i++) {
+			h = 31 * h + translationId.charAt(i);
+		}
+		int mask = keys.length - 1;
+		for (int slot = mix(h) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+			String key = keys[slot];
+			if (key.length() == length && key.regionMatches(0, translationId, from, length)) return positions[slot];
+		}
+		return end();
+	}
+
+	/**
+	 * @return the position of anything that is not one of the extensions, which is the number of extensions
+	 * (counting those without an ID as one)
+	 */
+	int end() {
+		return unidentified? size + 1 : size;
+	}
+
+	/**
+	 * @return the number of extensions in the table
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * releases the table
+	 */
+	void clear() {
+		keys = NO_KEYS;
+		positions = NO_VALUES;
+		size = 0;
+		next = 0;
+		unidentified = false;
+	}
+
+	/**
+	 * gives the extension the next position if it does not have one already
+	 *
+	 * @param id
+	 * @return true if the extension was added
+	 */
+	private boolean add(String id) {
+		int slot = slotOf(id);
+		if (keys[slot] != null) return false;
+		insert(slot, id, next++);
+		return true;
+	}
+
+	/**
+	 * gives the extension the given position, replacing any position it already has
+	 *
+	 * @param id
+	 * @param position
+	 */
+	private void put(String id, int position) {
+		int slot = slotOf(id);
+		if (keys[slot] != null) {
+			positions[slot] = position;
+		} else {
+			insert(slot, id, position);
+		}
+	}
+
+	private void insert(int slot, String id, int position) {
+		keys[slot] = id;
+		positions[slot] = position;
+		size++;
+	}
+
+	/**
+	 * @param id
+	 * @return the slot holding the ID or the empty slot where it should go, growing the table first if it is too full
+	 */
+	private int slotOf(String id) {
+		if ((size + 1) * 4 > keys.length * 3) grow();
+		int mask = keys.length - 1;
+		int slot = mix(id.hashCode()) & mask;
+		while (keys[slot] != null && !keys[slot].equals(id)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		String[] oldKeys = keys;
+		int[] oldPositions = positions;
+		keys = new String[Math.max(16, oldKeys.length * 2)];
+		positions = new int[keys.length];
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == null) continue;
+			int slot = mix(oldKeys[i].hashCode()) & mask;
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			positions[slot] = oldPositions[i];
+		}
+	}
+
+	private static int mix(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) continue;
+			if (sb.length() > 1) sb.append(", ");
+			sb.append(keys[i]).append('=').append(positions[i]);
+		}
+		return sb.append('}').toString();
+	}
+}
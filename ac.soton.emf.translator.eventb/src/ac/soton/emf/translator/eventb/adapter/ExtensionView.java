@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eventb.emf.core.machine.Event;
+
+/**
+ * The match keys of the elements that an event inherits, for a particular feature, by event extension.
+ * I.e. the elements of that feature in the event it refines, if it is extended, and so on transitively.
+ *
+ * The view is built once and then follows the additions and removals in the lists of the inherited events.
+ * It is rebuilt if the extended or refines properties of any event in the chain change.
+ *
+ * @see EventBTranslatorAdapter#outputFilter(ac.soton.emf.translator.TranslationDescriptor)
+ *
+ * @author cfs
+ *
+ */
+class ExtensionView extends MatchUnion {
+
+	private final EventBTranslatorAdapter adapter;
+	private final Event event;
+	private final EStructuralFeature feature;
+
+	ExtensionView(EventBTranslatorAdapter adapter, Event event, EStructuralFeature feature) {
+		this.adapter = adapter;
+		this.event = event;
+		this.feature = feature;
+	}
+
+	@Override
+	protected boolean collect() {
+		// the chain depends on the extended and refines properties of the event itself
+		if (!watch(adapter.getMatchIndex(event, feature))) return false;
+		Set<Event> visited = Collections.newSetFromMap(new IdentityHashMap<Event,Boolean>());
+		visited.add(event);
+		Event e = event;
+		while (e.isExtended() && !e.getRefines().isEmpty()) {
+			Event refinedEvent = e.getRefines().get(0);
+			if (!visited.add(refinedEvent)) break;
+			if (refinedEvent.eGet(feature) instanceof List) {
+				if (!count(adapter.getMatchIndex(refinedEvent, feature))) return false;
+			}
+			e = refinedEvent;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Base for the indexes that the EventBTranslatorAdapter keeps over a single (owner, feature) list.
+ *
+ * The index is attached to the owner as an EMF adapter so that it is told about every change to the list.
+ * Single element additions and removals are passed on to the subclass so that it can update itself incrementally,
+ * any other kind of change to the list invalidates the index so that it is rebuilt on its next use.
+ * If the index depends on the attributes of the elements in the list, it can also be attached to the elements
+ * so that it is told when one of their attributes changes.
+ *
+ * Indexes are only valid for the translation run that created them and must be disposed at the end of it.
+ *
+ * @author cfs
+ *
+ */
+abstract class FeatureIndex extends AdapterImpl {
+
+	protected final EObject owner;
+	protected final EStructuralFeature feature;
+	private final boolean trackElements;
+	private final Set<Notifier> trackedElements = Collections.newSetFromMap(new IdentityHashMap<Notifier,Boolean>());
+	private boolean valid = false;
+
+	/**
+	 * @param owner - the EObject that owns the list
+	 * @param feature - the many valued feature of the owner
+	 * @param trackElements - whether the index needs to be told about changes to the attributes of the elements in the list
+	 */
+	FeatureIndex(EObject owner, EStructuralFeature feature, boolean trackElements) {
+		this.owner = owner;
+		this.feature = feature;
+		this.trackElements = trackElements;
+		owner.eAdapters().add(this);
+	}
+
+	/**
+	 * returns the list that this index is maintained for
+	 */
+	protected List<?> list() {
+		return (List<?>) owner.eGet(feature);
+	}
+
+	/**
+	 * Whether the index can be relied upon. If the owner does not deliver notifications the index
+	 * cannot be kept up to date and the caller should fall back to inspecting the list directly
+	 */
+	boolean isUsable() {
+		return owner.eDeliver();
+	}
+
+	/**
+	 * (re)builds the index from the current contents of the list if it has been invalidated
+	 */
+	protected final void validate() {
+		if (!valid) {
+			reset();
+			List<?> list = list();
+			for (int i=0; i<list.size(); i++) {
+				track(list.get(i));
+				added(i, list.get(i));
+			}
+			valid = true;
+		}
+	}
+
+	/**
+	 * marks the index as out of date so that it is rebuilt on its next use
+	 */
+	protected void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * detaches the index from its owner
+	 */
+	void dispose() {
+		owner.eAdapters().remove(this);
+		reset();
+		valid = false;
+	}
+
+	/**
+	 * Tells the index that the value of the given element has changed in a way that it could not observe
+	 * (by default the index is invalidated)
+	 * 
+	 * @param element
+	 */
+	void elementChanged(Object element) {
+		invalidate();
+	}
+
+	/**
+	 * whether the index is currently up to date
+	 */
+	protected boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Called when a feature of the owner other than the indexed one changes (by default, nothing is done)
+	 * 
+	 * @param notification
+	 */
+	protected void ownerChanged(Notification notification) {
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		if (notification.isTouch()) return;
+		if (notification.getNotifier()==owner) {
+			if (notification.getFeature()!=feature) {
+				ownerChanged(notification);
+				return;
+			}
+			if (!valid) return;
+			switch (notification.getEventType()) {
+			case Notification.ADD :
+				track(notification.getNewValue());
+				added(notification.getPosition(), notification.getNewValue());
+				break;
+			case Notification.REMOVE :
+				untrack(notification.getOldValue());
+				removed(notification.getPosition(), notification.getOldValue());
+				break;
+			default :
+				invalidate();
+			}
+		}else if (valid && notification.getFeature() instanceof EAttribute && trackedElements.contains(notification.getNotifier())) {
+			elementChanged(notification.getNotifier());
+		}
+	}
+
+	private void track(Object element) {
+		if (trackElements && element instanceof Notifier && trackedElements.add((Notifier)element)) {
+			((Notifier)element).eAdapters().add(this);
+		}
+	}
+
+	private void untrack(Object element) {
+		if (trackElements && element instanceof Notifier && trackedElements.remove(element)) {
+			((Notifier)element).eAdapters().remove(this);
+		}
+	}
+
+	private void reset() {
+		for (Notifier element : trackedElements) {
+			element.eAdapters().remove(this);
+		}
+		trackedElements.clear();
+		clear();
+	}
+
+	/**
+	 * clear all the content of the index
+	 */
+	protected abstract void clear();
+
+	/**
+	 * update the index for a value that has been added to the list at the given position
+	 */
+	protected abstract void added(int position, Object value);
+
+	/**
+	 * update the index for a value that has been removed from the list at the given position
+	 */
+	protected abstract void removed(int position, Object value);
+
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Index of the match keys of the elements in a (parent, feature) list
+ * so that outputFilter can tell whether a new value matches an existing element with a single lookup.
+ *
+ * The index follows additions and removals in the list, and changes to the attributes
+ * (e.g. predicate, action or name) of the elements in it.
+ * Listeners can be told about each key that is added or removed so that they can maintain
+ * combinations of several indexes. Listeners are also told if the index is invalidated or if
+ * one of the given structural features of the owner changes.
+ *
+ * @see MatchKey
+ * @see EventBTranslatorAdapter#outputFilter(ac.soton.emf.translator.TranslationDescriptor)
+ *
+ * @author cfs
+ *
+ */
+class MatchIndex extends FeatureIndex {
+
+	/**
+	 * Listener for incremental changes to the keys of an index
+	 */
+	interface Listener {
+		void keyAdded(MatchIndex source, MatchKey key);
+		void keyRemoved(MatchIndex source, MatchKey key);
+		/**
+		 * the index can no longer be followed incrementally
+		 */
+		void invalidated(MatchIndex source);
+	}
+
+	private final boolean predicatesOnly;
+	private final EStructuralFeature[] structuralFeatures;
+	private final Map<MatchKey,Integer> counts = new HashMap<MatchKey,Integer>();
+	private final Map<Object,MatchKey> elementKeys = new IdentityHashMap<Object,MatchKey>();
+	private final List<Listener> listeners = new ArrayList<Listener>(2);
+
+	/**
+	 * @param owner
+	 * @param feature
+	 * @param predicatesOnly - if true, elements are keyed on their predicates only (MatchKey.ofPredicate)
+	 * otherwise elements are keyed according to match (MatchKey.of)
+	 * @param structuralFeatures - features of the owner whose changes invalidate the listeners
+	 */
+	MatchIndex(EObject owner, EStructuralFeature feature, boolean predicatesOnly, EStructuralFeature... structuralFeatures) {
+		super(owner, feature, true);
+		this.predicatesOnly = predicatesOnly;
+		this.structuralFeatures = structuralFeatures;
+	}
+
+	/**
+	 * whether the list contains an element that matches the given value
+	 *
+	 * @param value
+	 * @return
+	 */
+	boolean contains(Object value) {
+		validate();
+		MatchKey key = keyOf(value);
+		return key != null && counts.containsKey(key);
+	}
+
+	/**
+	 * the keys of the elements in the list with the number of elements having each key
+	 */
+	Map<MatchKey,Integer> keys() {
+		validate();
+		return Collections.unmodifiableMap(counts);
+	}
+
+	void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * tells the listeners that they can no longer follow this index incrementally
+	 */
+	protected void fireInvalidated() {
+		for (Listener listener : new ArrayList<Listener>(listeners)) {
+			listener.invalidated(this);
+		}
+	}
+
+	@Override
+	protected void ownerChanged(Notification notification) {
+		for (EStructuralFeature f : structuralFeatures) {
+			if (f == notification.getFeature()) {
+				fireInvalidated();
+				return;
+			}
+		}
+	}
+
+	@Override
+	protected void invalidate() {
+		super.invalidate();
+		fireInvalidated();
+	}
+
+	private MatchKey keyOf(Object value) {
+		return predicatesOnly? MatchKey.ofPredicate(value) : MatchKey.of(value);
+	}
+
+	@Override
+	void elementChanged(Object element) {
+		removed(-1, element);
+		added(-1, element);
+	}
+
+	@Override
+	protected void clear() {
+		counts.clear();
+		elementKeys.clear();
+	}
+
+	@Override
+	protected void added(int position, Object value) {
+		MatchKey key = keyOf(value);
+		if (key == null) return;
+		if (value instanceof Notifier) elementKeys.put(value, key);
+		Integer count = counts.get(key);
+		counts.put(key, count==null? 1 : count+1);
+		if (isValid()) {
+			for (Listener listener : listeners) {
+				listener.keyAdded(this, key);
+			}
+		}
+	}
+
+	@Override
+	protected void removed(int position, Object value) {
+		MatchKey key = value instanceof Notifier? elementKeys.remove(value) : keyOf(value);
+		if (key == null) return;
+		Integer count = counts.get(key);
+		if (count == null) return;
+		if (count == 1) {
+			counts.remove(key);
+		}else {
+			counts.put(key, count-1);
+		}
+		if (isValid()) {
+			for (Listener listener : listeners) {
+				listener.keyRemoved(this, key);
+			}
+		}
+	}
+}
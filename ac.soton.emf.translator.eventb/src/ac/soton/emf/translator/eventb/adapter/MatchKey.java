@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import org.eventb.emf.core.EventBNamedCommentedActionElement;
+import org.eventb.emf.core.EventBNamedCommentedElement;
+import org.eventb.emf.core.EventBNamedCommentedPredicateElement;
+
+/**
+ * A hashable key for an element such that two elements have equal keys
+ * if and only if EventBTranslatorAdapter.match would consider them to be the same.
+ * I.e. elements of the same class with equivalent predicate strings, equivalent action strings or equal names,
+ * or equal strings.
+ *
+ * @see EventBTranslatorAdapter#match(Object, Object)
+ *
+ * @author cfs
+ *
+ */
+final class MatchKey {
+
+	private final Class<?> type;
+	private final String text;
+	private final boolean ignoreWhitespace;
+	private final int hash;
+
+	private MatchKey(Class<?> type, String text, boolean ignoreWhitespace) {
+		this.type = type;
+		this.text = text;
+		this.ignoreWhitespace = ignoreWhitespace;
+		this.hash = 31 * type.hashCode() + 
+				(ignoreWhitespace? WhitespaceInsensitive.hashCode(text) : text==null? 0 : text.hashCode());
+	}
+
+	/**
+	 * returns the match key of the given element or null if the element cannot match anything
+	 *
+	 * @param element
+	 * @return
+	 */
+	static MatchKey of(Object element) {
+		if (element instanceof EventBNamedCommentedPredicateElement){
+			return new MatchKey(element.getClass(), ((EventBNamedCommentedPredicateElement)element).getPredicate(), true);
+		}else if (element instanceof EventBNamedCommentedActionElement){
+			return new MatchKey(element.getClass(), ((EventBNamedCommentedActionElement)element).getAction(), true);
+		}else if (element instanceof EventBNamedCommentedElement){
+			String name = ((EventBNamedCommentedElement)element).getName();
+			return name==null? null : new MatchKey(element.getClass(), name, false);
+		}else if (element instanceof String){
+			return new MatchKey(String.class, (String)element, false);
+		}else return null;
+	}
+
+	/**
+	 * returns a key for the predicate of the given element regardless of the class of the element
+	 * (e.g. so that invariants can be compared with axioms)
+	 * or null if the element does not have a predicate
+	 *
+	 * @param element
+	 * @return
+	 */
+	static MatchKey ofPredicate(Object element) {
+		if (element instanceof EventBNamedCommentedPredicateElement){
+			return new MatchKey(EventBNamedCommentedPredicateElement.class, ((EventBNamedCommentedPredicateElement)element).getPredicate(), true);
+		}else return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof MatchKey)) return false;
+		MatchKey other = (MatchKey) obj;
+		if (type != other.type || hash != other.hash) return false;
+		return ignoreWhitespace? WhitespaceInsensitive.equivalent(text, other.text) 
+				: text==null? other.text==null : text.equals(other.text);
+	}
+}
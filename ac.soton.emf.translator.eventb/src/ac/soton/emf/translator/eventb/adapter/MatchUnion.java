@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The combined keys of several match indexes, so that a value can be checked against all of them with one lookup.
+ *
+ * The members are collected by the subclass when the union is (re)built. The keys of the counted members are combined
+ * and then followed incrementally. Other members are only watched, so that the union is rebuilt if they report that
+ * they are invalidated (e.g. because the relationships that determine the members have changed).
+ *
+ * @author cfs
+ *
+ */
+abstract class MatchUnion implements MatchIndex.Listener {
+
+	private final Set<MatchIndex> counted = Collections.newSetFromMap(new IdentityHashMap<MatchIndex,Boolean>());
+	private final Set<MatchIndex> watched = Collections.newSetFromMap(new IdentityHashMap<MatchIndex,Boolean>());
+	private final Map<MatchKey,Integer> counts = new HashMap<MatchKey,Integer>();
+	private boolean valid = false;
+
+	/**
+	 * Collect the members of the union by calling count and watch
+	 *
+	 * @return false if the union cannot be built (e.g. because a member cannot be indexed)
+	 */
+	protected abstract boolean collect();
+
+	/**
+	 * add the keys of the given index to the union
+	 *
+	 * @param index
+	 * @return false if the index cannot be used
+	 */
+	protected boolean count(MatchIndex index) {
+		if (index == null || !index.isUsable()) return false;
+		if (counted.add(index)) {
+			index.addListener(this);
+			for (Map.Entry<MatchKey,Integer> entry : index.keys().entrySet()) {
+				Integer count = counts.get(entry.getKey());
+				counts.put(entry.getKey(), count==null? entry.getValue() : count+entry.getValue());
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * rebuild the union if the given index is invalidated, without adding its keys to the union
+	 *
+	 * @param index
+	 * @return false if the index cannot be used
+	 */
+	protected boolean watch(MatchIndex index) {
+		if (index == null || !index.isUsable()) return false;
+		if (!counted.contains(index) && watched.add(index)) {
+			index.addListener(this);
+		}
+		return true;
+	}
+
+	/**
+	 * (re)builds the union if necessary
+	 *
+	 * @return false if the union cannot be built
+	 */
+	boolean validate() {
+		if (valid) return true;
+		release();
+		if (!collect()) {
+			release();
+			return false;
+		}
+		valid = true;
+		return true;
+	}
+
+	/**
+	 * whether any of the counted members contains the key
+	 *
+	 * @param key
+	 * @return
+	 */
+	boolean contains(MatchKey key) {
+		return key != null && counts.containsKey(key);
+	}
+
+	/**
+	 * stop following the members
+	 */
+	void release() {
+		for (MatchIndex index : counted) {
+			index.removeListener(this);
+		}
+		for (MatchIndex index : watched) {
+			index.removeListener(this);
+		}
+		counted.clear();
+		watched.clear();
+		counts.clear();
+		valid = false;
+	}
+
+	@Override
+	public void keyAdded(MatchIndex source, MatchKey key) {
+		if (!valid || !counted.contains(source)) return;
+		Integer count = counts.get(key);
+		counts.put(key, count==null? 1 : count+1);
+	}
+
+	@Override
+	public void keyRemoved(MatchIndex source, MatchKey key) {
+		if (!valid || !counted.contains(source)) return;
+		Integer count = counts.get(key);
+		if (count == null) return;
+		if (count == 1) {
+			counts.remove(key);
+		}else {
+			counts.put(key, count-1);
+		}
+	}
+
+	@Override
+	public void invalidated(MatchIndex source) {
+		valid = false;
+	}
+}
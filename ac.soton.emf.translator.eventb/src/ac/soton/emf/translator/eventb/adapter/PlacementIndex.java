@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.Arrays;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Mirrors a (parent, feature) list with the placement key of each of its elements
+ * so that the insertion position of a new element can be found without re-reading the attributes of every element.
+ *
+ * While the keys in the list are in order (which they are whenever all of the elements have been placed by the translator)
+ * the position is found by binary search. If the list has been re-ordered by hand, the cached keys are scanned instead.
+ *
+ * @see EventBTranslatorAdapter#getPos(java.util.List, Object)
+ * @see EventBTranslatorAdapter#placementKey(Object)
+ *
+ * @author cfs
+ *
+ */
+class PlacementIndex extends FeatureIndex {
+
+	/**
+	 * key used for list elements that do not take part in placement (i.e. are not EventBElements)
+	 */
+	static final long NO_KEY = -1;
+
+	private final EventBTranslatorAdapter adapter;
+	private long[] keys = new long[16];
+	private int size = 0;
+	private boolean sorted = true;
+
+	PlacementIndex(EventBTranslatorAdapter adapter, EObject owner, EStructuralFeature feature) {
+		super(owner, feature, false);
+		this.adapter = adapter;
+	}
+
+	/**
+	 * returns the position after the last element in the list whose key is not greater than the given key
+	 * or 0 if there is no such element.
+	 *
+	 * @param key
+	 * @return the insertion position
+	 */
+	int getPos(long key) {
+		validate();
+		if (sorted) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (keys[mid] <= key) {
+					low = mid + 1;
+				}else {
+					high = mid;
+				}
+			}
+			return low;
+		}else {
+			for (int i=size-1; i>=0; i--) {
+				if (keys[i]!=NO_KEY && keys[i]<=key) return i+1;
+			}
+			return 0;
+		}
+	}
+
+	@Override
+	protected void clear() {
+		size = 0;
+		sorted = true;
+	}
+
+	@Override
+	protected void added(int position, Object value) {
+		long key = adapter.placementKey(value);
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size*2);
+		}
+		System.arraycopy(keys, position, keys, position+1, size-position);
+		keys[position] = key;
+		size++;
+		if (sorted) {
+			sorted = key != NO_KEY &&
+					(position == 0 || keys[position-1] <= key) &&
+					(position == size-1 || key <= keys[position+1]);
+		}
+	}
+
+	@Override
+	protected void removed(int position, Object value) {
+		System.arraycopy(keys, position+1, keys, position, size-position-1);
+		size--;
+	}
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per translation run cache of the resolved placement values (priority and extension position) of elements.
+ *
+ * The values are recorded when the adapter writes the placement attributes of a generated element
+ * and when the attributes of any other element are first read, so that getPos does not have to
+ * look up and parse the attributes again.
+ * Elements are keyed by identity. The cache must be cleared at the end of each translation run
+ * since extension positions are only meaningful within a run.
+ *
+ * @see EventBTranslatorAdapter#getPriority(Object)
+ * @see EventBTranslatorAdapter#getExtensionPosition(Object)
+ *
+ * @author cfs
+ *
+ */
+class PlacementKeyCache {
+
+	/**
+	 * the resolved placement values of one element
+	 */
+	static final class Keys {
+		int priority;
+		int extensionPosition;
+		boolean priorityKnown = false;
+		boolean extensionPositionKnown = false;
+
+		void setPriority(int priority) {
+			this.priority = priority;
+			priorityKnown = true;
+		}
+
+		void setExtensionPosition(int extensionPosition) {
+			this.extensionPosition = extensionPosition;
+			extensionPositionKnown = true;
+		}
+	}
+
+	private final Map<Object,Keys> keys = new IdentityHashMap<Object,Keys>();
+
+	/**
+	 * whether the values are kept, otherwise each element gets a new empty entry every time
+	 */
+	private final boolean enabled;
+
+	PlacementKeyCache(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * returns the cached placement values of the given element, creating an empty entry if there is none
+	 * (or a new empty entry that is not kept if the cache is not enabled)
+	 *
+	 * @param element
+	 * @return
+	 */
+	Keys get(Object element) {
+		if (!enabled) return new Keys();
+		Keys k = keys.get(element);
+		if (k == null) {
+			k = new Keys();
+			keys.put(element, k);
+		}
+		return k;
+	}
+
+	void clear() {
+		keys.clear();
+	}
+}
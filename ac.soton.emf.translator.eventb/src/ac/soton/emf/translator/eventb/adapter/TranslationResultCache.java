@@ -0,0 +1,368 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.EventBNamedCommentedComponentElement;
+
+import ac.soton.emf.translator.configuration.AttributeIdentifiers;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+import ac.soton.emf.translator.eventb.utils.ContentDigest;
+
+/**
+ * <p>
+ * A cache of translation results, kept on disk in the working location (metadata area) of each project.
+ * </p>
+ * <p>
+ * An entry is keyed by a hash of the rule set and of the content of the component being translated and of every component in its scope
+ * (the machines it refines, the contexts it sees or extends, and so on), leaving out the elements generated by translations,
+ * so that the key of a component is the same before and after it is translated.
+ * It records the content digest of each machine and context that the translation left in the resource set, i.e. the translated model.
+ * When a translation starts with a key that is in the cache and all of the recorded components are still as they were recorded,
+ * translating again would produce what is already there, so the result is replayed: the rules are given nothing to translate
+ * and the elements they generated before are kept.
+ * </p>
+ * <p>
+ * A result is recorded once the translation has succeeded (see translationSucceeded) and its result has been saved (see translationSaved),
+ * so that there is never an entry for a result that is not on disk.
+ * The recorded components are checked in a separate resource set, so that checking does not load anything into the translation's resource set.
+ * Entries are small binary files, one per key. When there are more than a given number of them in a project, the least recently used are deleted.
+ * Any entry that cannot be read is treated as missing, and the whole cache can be deleted at any time.
+ * </p>
+ *
+ * @see EventBTranslatorAdapter#isResultCaching()
+ *
+ * @author cfs
+ * @since 1.0
+ */
+public final class TranslationResultCache {
+
+	private static final String pluginID = "ac.soton.emf.translator.eventb";
+
+	/**
+	 * the folder of a project's working location that holds the cache
+	 */
+	private static final String FOLDER = "translation-results";
+
+	private static final String SUFFIX = ".result";
+
+	/**
+	 * identifies (the version of) the file format
+	 */
+	private static final int MAGIC = 0x45425452;
+
+	/**
+	 * the maximum number of entries kept for a project
+	 */
+	private static final int CAPACITY = 256;
+
+	/**
+	 * The cache lookup made at the start of a translation, which is kept in its translation context until the translation ends
+	 */
+	static final class Lookup {
+		final File folder;
+		final String key;
+		final ResourceSet resourceSet;
+		final boolean hit;
+
+		/**
+		 * the digests of the components of the successful translation, waiting for its result to be saved
+		 */
+		Map<String,String> succeeded;
+
+		Lookup(File folder, String key, ResourceSet resourceSet, boolean hit) {
+			this.folder = folder;
+			this.key = key;
+			this.resourceSet = resourceSet;
+			this.hit = hit;
+		}
+	}
+
+	private TranslationResultCache() {
+	}
+
+	/**
+	 * Looks up the result of translating the given component with the given rule set,
+	 * and keeps the lookup in the current translation context so that the result can be recorded if the translation succeeds.
+	 *
+	 * @param component - the target component of the translation
+	 * @param ruleSet - identifies the rules of the translation and their version
+	 * @return the lookup, or null if the component is not in a workspace project
+	 */
+	static Lookup lookup(EventBNamedCommentedComponentElement component, String ruleSet) {
+		Resource resource = component.eResource();
+		IFile file = resource == null? null : WorkspaceSynchronizer.getFile(resource);
+		if (file == null || resource.getResourceSet() == null) return null;
+		File folder = folder(file.getProject());
+		if (folder == null) return null;
+		String key = key(component, ruleSet);
+		Lookup lookup = new Lookup(folder, key, resource.getResourceSet(), isUpToDate(folder, key, resource.getResourceSet()));
+		TranslationContext context = TranslationContext.current();
+		if (context != null) context.attach(TranslationResultCache.class, lookup);
+		return lookup;
+	}
+
+	/**
+	 * Tells the cache that the translation running on the current thread has succeeded, so that its result can be recorded
+	 * when it has been saved. The components that the translation left in the resource set are digested now.
+	 * This must be called before the translation context ends. It does nothing if the translation did not use the cache.
+	 *
+	 * @see #translationSaved()
+	 */
+	public static void translationSucceeded() {
+		Lookup lookup = currentLookup();
+		if (lookup == null || lookup.hit) return;
+		Map<String,String> components = new LinkedHashMap<String,String>();
+		for (Resource resource : new ArrayList<Resource>(lookup.resourceSet.getResources())) {
+			if (resource.isLoaded() && isComponentURI(resource.getURI())) {
+				components.put(resource.getURI().toString(), ContentDigest.of(resource.getContents()));
+			}
+		}
+		lookup.succeeded = components;
+	}
+
+	/**
+	 * Tells the cache that the result of the successful translation running on the current thread has been saved, and records it.
+	 * This must be called before the translation context ends. It does nothing if the translation did not use the cache
+	 * or has not succeeded.
+	 *
+	 * @see #translationSucceeded()
+	 */
+	public static void translationSaved() {
+		Lookup lookup = currentLookup();
+		if (lookup == null || lookup.succeeded == null) return;
+		write(lookup.folder, lookup.key, lookup.succeeded);
+		lookup.succeeded = null;
+	}
+
+	/**
+	 * @return the lookup made by the translation running on the current thread, or null if it did not use the cache
+	 */
+	private static Lookup currentLookup() {
+		TranslationContext context = TranslationContext.current();
+		return context == null? null : (Lookup) context.getAttachment(TranslationResultCache.class);
+	}
+
+	/**
+	 * Deletes the cache of the given project
+	 *
+	 * @param project
+	 */
+	public static void clear(IProject project) {
+		File folder = folder(project);
+		File[] files = folder == null? null : folder.listFiles();
+		if (files == null) return;
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * @param component
+	 * @param ruleSet
+	 * @return a hash of the rule set and of the content of the components in scope of the component, without the generated elements
+	 */
+	static String key(EventBNamedCommentedComponentElement component, String ruleSet) {
+		StringBuilder sb = new StringBuilder(ruleSet).append('\n');
+		for (EventBNamedCommentedComponentElement cp : ConstraintScope.scopeOf(component)) {
+			Resource resource = cp.eResource();
+			sb.append(resource == null? "" : resource.getURI().toString()).append('=')
+				.append(ContentDigest.of(Collections.singletonList(cp), TranslationResultCache::isGenerated)).append('\n');
+		}
+		return digest(sb.toString());
+	}
+
+	/**
+	 * @param element
+	 * @return whether the element was generated by a translation (i.e. it has a translation ID)
+	 */
+	private static boolean isGenerated(EObject element) {
+		return element instanceof EventBElement &&
+				((EventBElement) element).getAttributes().containsKey(AttributeIdentifiers.TRANSLATOR__TRANSLATION_ID_KEY);
+	}
+
+	/**
+	 * Checks the recorded components, using the ones that are loaded in the given resource set as they are
+	 * and reading the others into a separate resource set, which is unloaded afterwards.
+	 *
+	 * @param folder
+	 * @param key
+	 * @param resourceSet
+	 * @return true if there is an entry for the key and every component it records has the recorded content
+	 */
+	static boolean isUpToDate(File folder, String key, ResourceSet resourceSet) {
+		Map<String,String> components = read(folder, key);
+		if (components == null) return false;
+		ResourceSet scratch = null;
+		try {
+			for (Map.Entry<String,String> component : components.entrySet()) {
+				URI uri = URI.createURI(component.getKey());
+				Resource resource = resourceSet.getResource(uri, false);
+				if (resource == null || !resource.isLoaded()) {
+					if (scratch == null) {
+						scratch = new ResourceSetImpl();
+						scratch.setResourceFactoryRegistry(resourceSet.getResourceFactoryRegistry());
+						scratch.setURIConverter(resourceSet.getURIConverter());
+						scratch.getLoadOptions().putAll(resourceSet.getLoadOptions());
+					}
+					resource = scratch.getResource(uri, true);
+				}
+				if (resource == null || !component.getValue().equals(ContentDigest.of(resource.getContents()))) return false;
+			}
+			return true;
+		} catch (RuntimeException e) {
+			return false; // e.g. the file no longer exists
+		} finally {
+			if (scratch != null) {
+				for (Resource resource : scratch.getResources()) {
+					resource.unload();
+				}
+				scratch.getResources().clear();
+			}
+		}
+	}
+
+	/**
+	 * @param project
+	 * @return the folder of the cache of the project, or null if the project has no working location
+	 */
+	private static File folder(IProject project) {
+		if (project == null || !project.isAccessible()) return null;
+		try {
+			return project.getWorkingLocation(pluginID).append(FOLDER).toFile();
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * reads an entry, marking it as recently used
+	 *
+	 * @return the digests of the components by URI, or null if there is no readable entry
+	 */
+	private static Map<String,String> read(File folder, String key) {
+		File file = new File(folder, key+SUFFIX);
+		if (!file.isFile()) return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) throw new IOException("not a translation result");
+			int count = in.readInt();
+			Map<String,String> components = new LinkedHashMap<String,String>();
+			for (int i = 0; i < count; i++) {
+				components.put(in.readUTF(), in.readUTF());
+			}
+			file.setLastModified(System.currentTimeMillis());
+			return components;
+		} catch (IOException e) {
+			file.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * writes an entry (replacing it in one step so that a reader never sees part of it), then evicts the least recently used entries
+	 */
+	private static void write(File folder, String key, Map<String,String> components) {
+		File file = new File(folder, key+SUFFIX);
+		File temp = null;
+		try {
+			if (!folder.isDirectory() && !folder.mkdirs()) return;
+			temp = File.createTempFile(key+SUFFIX, ".tmp", folder);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(components.size());
+				for (Map.Entry<String,String> component : components.entrySet()) {
+					out.writeUTF(component.getKey());
+					out.writeUTF(component.getValue());
+				}
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+			evict(folder);
+		} catch (IOException e) {
+			// the cache is only an optimisation, the result is simply not recorded
+		} finally {
+			if (temp != null) temp.delete();
+		}
+	}
+
+	private static void evict(File folder) {
+		File[] entries = folder.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (entries == null || entries.length <= CAPACITY) return;
+		final long[] used = new long[entries.length];
+		Integer[] order = new Integer[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			used[i] = entries[i].lastModified();
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> used[i]));
+		List<File> stale = new ArrayList<File>();
+		for (int i = 0; i < entries.length - CAPACITY; i++) {
+			stale.add(entries[order[i]]);
+		}
+		for (File entry : stale) {
+			entry.delete();
+		}
+	}
+
+	private static boolean isComponentURI(URI uri) {
+		return uri != null && ("bum".equals(uri.fileExtension()) || "buc".equals(uri.fileExtension()));
+	}
+
+	private static String digest(String text) {
+		try {
+			StringBuilder sb = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8))) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
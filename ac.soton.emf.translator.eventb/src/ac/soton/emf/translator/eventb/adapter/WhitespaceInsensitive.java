@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.adapter;
+
+/**
+ * Comparison and hashing of strings (predicates and actions) ignoring whitespace.
+ * Whitespace is the set of characters matched by the regular expression \s
+ * (i.e. space, tab, newline, vertical tab, form feed and carriage return).
+ *
+ * Two strings are equivalent if they are equal once all whitespace has been removed from them.
+ * Neither method allocates.
+ *
+ * @author cfs
+ *
+ */
+final class WhitespaceInsensitive {
+
+	private WhitespaceInsensitive() {
+	}
+
+	/**
+	 * whether the two strings are equal ignoring whitespace. A null string is only equivalent to null.
+	 *
+	 * @param s1
+	 * @param s2
+	 * @return
+	 */
+	static boolean equivalent(String s1, String s2) {
+		if (s1==null) return s2==null;
+		if (s2==null) return false;
+		int n1 = s1.length();
+		int n2 = s2.length();
+		int i = 0;
+		int j = 0;
+		while (true) {
+			while (i<n1 && isWhitespace(s1.charAt(i))) i++;
+			while (j<n2 && isWhitespace(s2.charAt(j))) j++;
+			if (i==n1 || j==n2) return i==n1 && j==n2;
+			if (s1.charAt(i++) != s2.charAt(j++)) return false;
+		}
+	}
+
+	/**
+	 * a hash code that is consistent with equivalent
+	 * (it is the hash code of the string with its whitespace removed, or 0 for null)
+	 *
+	 * @param s
+	 * @return
+	 */
+	static int hashCode(String s) {
+		int h = 0;
+		if (s != null) {
+			for (int i=0; i<s.length(); i++) {
+				char c = s.charAt(i);
+				if (!isWhitespace(c)) h = 31*h + c;
+			}
+		}
+		return h;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c==' ' || c=='\t' || c=='\n' || c=='\u000B' || c=='\f' || c=='\r';
+	}
+}
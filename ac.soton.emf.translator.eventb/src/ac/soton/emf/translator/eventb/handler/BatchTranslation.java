@@ -0,0 +1,845 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.handler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eventb.emf.core.EventBNamedCommentedComponentElement;
+import org.eventb.emf.core.context.Context;
+import org.eventb.emf.core.machine.Machine;
+import org.eventb.emf.persistence.EMFRodinDB;
+import org.rodinp.core.IInternalElement;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.RodinCore;
+
+import ac.soton.emf.translator.TranslatorFactory;
+import ac.soton.emf.translator.eventb.adapter.DryRun;
+import ac.soton.emf.translator.eventb.adapter.TranslationResultCache;
+import ac.soton.emf.translator.eventb.instrumentation.Counter;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation.Timer;
+import ac.soton.emf.translator.eventb.instrumentation.Phase;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * <p>
+ * Translates many Event-B components (machines and contexts) with one command.
+ * </p>
+ * <p>
+ * Each component is loaded with EMFRodinDB into an editing domain of its own.
+ * Components that depend on each other within the batch (by refines, sees or extends) are translated one after the other,
+ * in dependency order, in a shared editing domain so that each translation sees the results of the ones before it.
+ * Independent groups of components are translated at the same time, each in its own editing domain,
+ * on a bounded pool of worker threads.
+ * When all the translations have finished, the groups that changed the same resource (e.g. machines that see the same context,
+ * which both their translations changed) are translated again, one after the other in a shared editing domain,
+ * so that the resource is changed and saved by one group only.
+ * Then the modified resources of all the groups are saved in a single Rodin runnable.
+ * If a resource has still been changed by more than one group, nothing is saved.
+ * </p>
+ * <p>
+ * The translator of the command, with its adapter and its rules, is shared by the worker threads.
+ * The adapter keeps the state of each translation in its translation context, and the rules must do the same,
+ * keeping anything that lasts beyond one rule call in the storage of the translation (see AbstractEventBGeneratorRule) rather than in fields.
+ * Translators whose rules do not should be run with one thread.
+ * </p>
+ * <p>
+ * The translation context of each component is opened before it is loaded (again, if it is translated again)
+ * and is ended when the whole batch has finished, so its metrics count the load, the translation and the save of its group (which is counted for the last component of the group).
+ * The result of each successful translation is recorded in the translation result cache once its group has been saved.
+ * </p>
+ *
+ * @author cfs
+ * @see EventBTranslateHandler#translateAll(String, Collection, int, IProgressMonitor)
+ */
+public class BatchTranslation {
+
+	private static final String pluginID = "ac.soton.emf.translator.eventb";
+	private static final String notAComponentMessage = "not an Event-B machine or context";
+	private static final String noTranslatorMessage = "no translator for this component";
+	private static final String translationFailedMessage = "translation failed";
+	private static final String cancelledMessage = "cancelled";
+	private static final String saveFailedMessage = "failed saving resources after batch translation";
+	private static final String saveConflictMessage = "not saved, changed by more than one group of the batch: ";
+
+	/**
+	 * The outcome of translating one component of the batch
+	 */
+	public static class ComponentStatus {
+		private final URI uri;
+		private IStatus status = new Status(IStatus.CANCEL, pluginID, cancelledMessage);
+		private long time = 0;
+
+		ComponentStatus(URI uri) {
+			this.uri = uri;
+		}
+
+		/**
+		 * @return the URI of the resource containing the component
+		 */
+		public URI getURI() {
+			return uri;
+		}
+
+		/**
+		 * @return the name of the component (i.e. its file name without extension)
+		 */
+		public String getName() {
+			return uri.trimFileExtension().lastSegment();
+		}
+
+		public IStatus getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return the time taken to translate the component in milliseconds
+		 */
+		public long getTime() {
+			return time;
+		}
+	}
+
+	/**
+	 * The outcome of the whole batch
+	 */
+	public static class Result {
+		private final List<ComponentStatus> components;
+		private IStatus saveStatus = Status.OK_STATUS;
+		private long elapsed = 0;
+		private int written = 0;
+		private int skipped = 0;
+		private boolean dryRun = false;
+
+		Result(List<ComponentStatus> components) {
+			this.components = Collections.unmodifiableList(components);
+		}
+
+		/**
+		 * @return the status of each component in the order in which they were given
+		 */
+		public List<ComponentStatus> getComponents() {
+			return components;
+		}
+
+		public IStatus getSaveStatus() {
+			return saveStatus;
+		}
+
+		/**
+		 * @return the number of resources that were written by the save
+		 */
+		public int getWrittenCount() {
+			return written;
+		}
+
+		/**
+		 * @return the number of resources that were not written because the translation did not change them
+		 */
+		public int getSkippedCount() {
+			return skipped;
+		}
+
+		/**
+		 * @return true if this is the result of a dry run, which did not change or save anything
+		 */
+		public boolean isDryRun() {
+			return dryRun;
+		}
+
+		/**
+		 * @return the total time taken, including loading and saving, in milliseconds
+		 */
+		public long getElapsedTime() {
+			return elapsed;
+		}
+
+		/**
+		 * @return the number of components that were translated successfully
+		 */
+		public int getTranslatedCount() {
+			int count = 0;
+			for (ComponentStatus component : components) {
+				if (component.status.isOK()) count++;
+			}
+			return count;
+		}
+
+		/**
+		 * @return the number of components translated successfully per second of elapsed time
+		 */
+		public double getThroughput() {
+			return elapsed == 0? 0 : getTranslatedCount() * 1000.0 / elapsed;
+		}
+
+		/**
+		 * @return a multi-status containing the status of each component and of the save
+		 */
+		public IStatus toStatus() {
+			MultiStatus status = new MultiStatus(pluginID, IStatus.OK, dryRun?
+					String.format("dry run translated %d of %d components in %d ms (%.1f per second), nothing saved",
+							getTranslatedCount(), components.size(), elapsed, getThroughput())
+					: String.format("translated %d of %d components in %d ms (%.1f per second), saved %d resources, skipped %d unchanged",
+							getTranslatedCount(), components.size(), elapsed, getThroughput(), written, skipped), null);
+			for (ComponentStatus component : components) {
+				status.add(new Status(component.status.getSeverity(), pluginID, component.status.getCode(),
+						component.getName()+": "+component.status.getMessage()+" ("+component.time+" ms)", component.status.getException()));
+			}
+			status.add(saveStatus);
+			return status;
+		}
+	}
+
+	/**
+	 * One component of the batch
+	 */
+	private static class Unit {
+		final URI uri;
+		final ComponentStatus status;
+		TransactionalEditingDomain domain;
+		EventBNamedCommentedComponentElement component;
+		final List<Unit> dependencies = new ArrayList<Unit>();
+
+		Unit(URI uri) {
+			this.uri = uri;
+			this.status = new ComponentStatus(uri);
+		}
+	}
+
+	private final String commandId;
+	private final int maxThreads;
+
+	/**
+	 * @param commandId - the id of the translation command (which identifies the translator to use)
+	 * @param maxThreads - the maximum number of components to translate at the same time
+	 */
+	public BatchTranslation(String commandId, int maxThreads) {
+		this.commandId = commandId;
+		this.maxThreads = Math.max(1, maxThreads);
+	}
+
+	/**
+	 * Translates and saves the given components.
+	 * The elements can be Rodin elements (e.g. the root of a machine or context), Rodin files,
+	 * EMF Event-B components or EMF resources. Anything else is ignored.
+	 *
+	 * @param elements
+	 * @param monitor
+	 * @return the status of each component and the overall throughput
+	 * @throws CoreException if the translator factory is not available
+	 */
+	public Result run(Collection<?> elements, IProgressMonitor monitor) throws CoreException {
+		return run(elements, null, monitor);
+	}
+
+	/**
+	 * Translates the given components without changing or saving them, telling the listener about each change
+	 * that the translations would make (see DryRun).
+	 * The components are grouped and ordered in the same way as for run, but as nothing is changed,
+	 * each translation sees its dependencies as they are rather than as translated,
+	 * and groups that would change the same resource are not translated again.
+	 * The listener is called from the worker threads, one call at a time.
+	 *
+	 * @param elements
+	 * @param listener
+	 * @param monitor
+	 * @return the status of each component and the overall throughput
+	 * @throws CoreException if the translator factory is not available
+	 */
+	public Result dryRun(Collection<?> elements, DryRun.Listener listener, IProgressMonitor monitor) throws CoreException {
+		final DryRun.Listener target = listener;
+		return run(elements, new DryRun.Listener() {
+			@Override
+			public void changed(DryRun.Change change) {
+				synchronized (target) {
+					target.changed(change);
+				}
+			}
+		}, monitor);
+	}
+
+	/**
+	 * Translates the given components, then saves them unless this is a dry run
+	 *
+	 * @param elements
+	 * @param dryRun - the listener for a dry run or null
+	 * @param monitor
+	 * @return the status of each component and the overall throughput
+	 * @throws CoreException if the translator factory is not available
+	 */
+	private Result run(Collection<?> elements, final DryRun.Listener dryRun, IProgressMonitor monitor) throws CoreException {
+		long start = System.currentTimeMillis();
+		final TranslatorFactory factory = TranslatorFactory.getFactory();
+		Map<URI, Unit> units = new LinkedHashMap<URI, Unit>();
+		for (Object element : elements) {
+			URI uri = getURI(element);
+			if (uri != null && !units.containsKey(uri)) units.put(uri, new Unit(uri));
+		}
+		List<ComponentStatus> statuses = new ArrayList<ComponentStatus>();
+		for (Unit unit : units.values()) statuses.add(unit.status);
+		Result result = new Result(statuses);
+		result.dryRun = dryRun != null;
+
+		monitor.beginTask("Translating "+units.size()+" components", units.size()*2 + 1);
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(maxThreads, Math.max(1, units.size())));
+		try {
+			// load each component in its own editing domain
+			List<Callable<Unit>> loads = new ArrayList<Callable<Unit>>();
+			for (final Unit unit : units.values()) {
+				loads.add(new Callable<Unit>() {
+					public Unit call() {
+						load(unit, dryRun == null);
+						return unit;
+					}
+				});
+			}
+			runAll(pool, loads, monitor);
+
+			// group dependent components together in a shared editing domain
+			List<List<Unit>> groups = group(units.values());
+
+			// translate the groups, each on its own thread
+			translateAll(pool, factory, groups, dryRun, monitor);
+
+			// save everything together
+			if (dryRun == null && !monitor.isCanceled()) {
+				result.saveStatus = saveAll(pool, factory, groups, result, monitor);
+			}
+			monitor.worked(1);
+		} finally {
+			pool.shutdownNow();
+			// end the translation context of every unit, including the ones that failed or were cancelled
+			for (Unit unit : units.values()) {
+				TranslationContext.end(unit);
+			}
+			Set<TransactionalEditingDomain> domains = Collections.newSetFromMap(new IdentityHashMap<TransactionalEditingDomain, Boolean>());
+			for (Unit unit : units.values()) {
+				if (unit.domain != null && domains.add(unit.domain)) unit.domain.dispose();
+			}
+			monitor.done();
+		}
+		result.elapsed = System.currentTimeMillis() - start;
+		return result;
+	}
+
+	/**
+	 * Saves the resources changed by the groups, first translating the groups that changed the same resource again, together
+	 *
+	 * @return the status of the save
+	 */
+	private IStatus saveAll(ExecutorService pool, TranslatorFactory factory, List<List<Unit>> groups, Result result, IProgressMonitor monitor) {
+		try {
+			Map<List<Unit>, ResourceSnapshots.SaveReport> reports = prepare(groups);
+			List<List<Unit>> merged = new ArrayList<List<Unit>>();
+			for (List<List<Unit>> part : overlapping(toSave(reports))) {
+				if (part.size() < 2) continue;
+				List<Unit> group = new ArrayList<Unit>();
+				for (List<Unit> conflicting : part) {
+					reports.remove(conflicting);
+					group.addAll(conflicting);
+				}
+				merged.add(group);
+			}
+			if (!merged.isEmpty()) {
+				merged = retranslateAll(pool, factory, merged, monitor);
+				if (monitor.isCanceled()) return new Status(IStatus.CANCEL, pluginID, cancelledMessage);
+				reports.putAll(prepare(merged));
+			}
+			return save(reports, result, monitor);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new Status(IStatus.CANCEL, pluginID, cancelledMessage);
+		}
+	}
+
+	/**
+	 * Translates the groups on the pool, each group on its own thread
+	 */
+	private void translateAll(ExecutorService pool, final TranslatorFactory factory, List<List<Unit>> groups, final DryRun.Listener dryRun, IProgressMonitor monitor) {
+		List<Callable<Unit>> translations = new ArrayList<Callable<Unit>>();
+		for (final List<Unit> group : groups) {
+			translations.add(new Callable<Unit>() {
+				public Unit call() {
+					for (Unit unit : group) {
+						translate(factory, unit, dryRun);
+					}
+					return group.get(0);
+				}
+			});
+		}
+		runAll(pool, translations, monitor);
+	}
+
+	/**
+	 * Translates each of the given groups again from the saved state of its components:
+	 * the units are reloaded (with new translation contexts) into one editing domain per group
+	 * and translated one after the other in dependency order.
+	 * The groups are translated on the pool, each on its own thread.
+	 *
+	 * @return the groups that have been translated, each in the order of its translations,
+	 *  without the units that could not be reloaded
+	 */
+	private List<List<Unit>> retranslateAll(ExecutorService pool, final TranslatorFactory factory, List<List<Unit>> groups, IProgressMonitor monitor) {
+		List<List<Unit>> orders = new ArrayList<List<Unit>>();
+		List<Callable<Unit>> translations = new ArrayList<Callable<Unit>>();
+		for (final List<Unit> group : groups) {
+			final List<Unit> order = new ArrayList<Unit>();
+			orders.add(order);
+			translations.add(new Callable<Unit>() {
+				public Unit call() {
+					dispose(group);
+					List<Unit> loaded = new ArrayList<Unit>();
+					for (Unit unit : group) {
+						load(unit, true);
+						if (unit.component != null) loaded.add(unit);
+					}
+					if (loaded.isEmpty()) return group.get(0);
+					order.addAll(order(loaded));
+					share(order);
+					for (Unit unit : order) {
+						translate(factory, unit, null);
+					}
+					return group.get(0);
+				}
+			});
+		}
+		runAll(pool, translations, monitor);
+		List<List<Unit>> translated = new ArrayList<List<Unit>>();
+		for (List<Unit> order : orders) {
+			if (!order.isEmpty()) translated.add(order);
+		}
+		return translated;
+	}
+
+	/**
+	 * disposes the editing domains of the units and forgets their components
+	 */
+	private static void dispose(List<Unit> units) {
+		Set<TransactionalEditingDomain> domains = Collections.newSetFromMap(new IdentityHashMap<TransactionalEditingDomain, Boolean>());
+		for (Unit unit : units) {
+			if (unit.domain != null && domains.add(unit.domain)) unit.domain.dispose();
+			unit.domain = null;
+			unit.component = null;
+		}
+	}
+
+	/**
+	 * Runs the tasks on the pool, reporting progress as each one finishes and stopping if the monitor is cancelled
+	 */
+	private void runAll(ExecutorService pool, List<Callable<Unit>> tasks, IProgressMonitor monitor) {
+		CompletionService<Unit> completion = new ExecutorCompletionService<Unit>(pool);
+		List<Future<Unit>> futures = new ArrayList<Future<Unit>>();
+		for (Callable<Unit> task : tasks) {
+			futures.add(completion.submit(task));
+		}
+		try {
+			for (int done = 0; done < tasks.size(); ) {
+				if (monitor.isCanceled()) break;
+				Future<Unit> future = completion.poll(100, TimeUnit.MILLISECONDS);
+				if (future == null) continue;
+				done++;
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// failures are recorded in the status of each component
+				}
+				monitor.worked(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			for (Future<Unit> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Loads the component of the unit with EMFRodinDB into a new editing domain, recording snapshots of the resources if they are to be saved.
+	 * The translation context of the unit is opened first, so that the load is counted in its metrics.
+	 */
+	private void load(Unit unit, boolean snapshots) {
+		TranslationContext.begin(unit);
+		Timer timer = Instrumentation.start(Phase.LOAD);
+		unit.domain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+		if (snapshots) ResourceSnapshots.of(unit.domain.getResourceSet());
+		try {
+			unit.component = loadComponent(unit.domain, unit.uri);
+			if (unit.component == null) {
+				unit.status.status = new Status(IStatus.ERROR, pluginID, notAComponentMessage);
+			}
+		} catch (RuntimeException e) {
+			unit.status.status = new Status(IStatus.ERROR, pluginID, translationFailedMessage, e);
+		} finally {
+			Instrumentation.translationStarted(unit.component != null? unit.component : unit.status.getName());
+			timer.end();
+			TranslationContext.release();
+		}
+	}
+
+	/**
+	 * Groups the units that depend on each other within the batch (directly or indirectly) and orders each group so that
+	 * components come after the ones they depend on. Components in a cycle are left in the order given.
+	 * All the units of a group are (re)loaded into the editing domain of the first one.
+	 */
+	private List<List<Unit>> group(Collection<Unit> units) {
+		Map<URI, Unit> byURI = new HashMap<URI, Unit>();
+		for (Unit unit : units) {
+			if (unit.component != null) byURI.put(unit.uri, unit);
+		}
+		Map<Unit, Set<URI>> batchScopes = new LinkedHashMap<Unit, Set<URI>>();
+		for (Unit unit : units) {
+			if (unit.component == null) continue;
+			// the unit and its dependencies within the batch
+			Set<URI> batchScope = new LinkedHashSet<URI>();
+			for (URI uri : scope(unit.uri, unit.component)) {
+				Unit dependency = byURI.get(uri);
+				if (dependency == null) continue;
+				batchScope.add(uri);
+				if (dependency != unit) unit.dependencies.add(dependency);
+			}
+			batchScopes.put(unit, batchScope);
+		}
+		List<List<Unit>> ordered = new ArrayList<List<Unit>>();
+		for (List<Unit> group : overlapping(batchScopes)) {
+			List<Unit> order = order(group);
+			share(order);
+			ordered.add(order);
+		}
+		return ordered;
+	}
+
+	/**
+	 * @return the URIs of the resources of the component and of the components it refines, sees or extends
+	 * (whether or not they are in the batch)
+	 */
+	static Set<URI> scope(URI uri, EventBNamedCommentedComponentElement component) {
+		Set<URI> scope = new LinkedHashSet<URI>();
+		scope.add(uri);
+		URI folder = uri.trimSegments(1);
+		if (component instanceof Machine) {
+			for (String name : ((Machine) component).getRefinesNames()) {
+				scope.add(folder.appendSegment(name).appendFileExtension("bum"));
+			}
+			for (String name : ((Machine) component).getSeesNames()) {
+				scope.add(folder.appendSegment(name).appendFileExtension("buc"));
+			}
+		} else if (component instanceof Context) {
+			for (String name : ((Context) component).getExtendsNames()) {
+				scope.add(folder.appendSegment(name).appendFileExtension("buc"));
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * Partitions the keys so that keys whose scopes share a URI (directly or through other keys) are in the same part.
+	 *
+	 * @param scopes - the URIs of each key
+	 * @return the parts, each in the order of the keys, in the order of their first keys
+	 */
+	static <K> List<List<K>> overlapping(Map<K, ? extends Collection<URI>> scopes) {
+		// union-find of the keys, joining each key to the first key that had one of its URIs
+		Map<K, K> parents = new HashMap<K, K>();
+		Map<URI, K> first = new HashMap<URI, K>();
+		for (Map.Entry<K, ? extends Collection<URI>> entry : scopes.entrySet()) {
+			parents.put(entry.getKey(), entry.getKey());
+			for (URI uri : entry.getValue()) {
+				K other = first.get(uri);
+				if (other == null) {
+					first.put(uri, entry.getKey());
+				} else {
+					parents.put(root(parents, other), root(parents, entry.getKey()));
+				}
+			}
+		}
+		Map<K, List<K>> parts = new LinkedHashMap<K, List<K>>();
+		for (K key : scopes.keySet()) {
+			K root = root(parents, key);
+			List<K> part = parts.get(root);
+			if (part == null) {
+				part = new ArrayList<K>();
+				parts.put(root, part);
+			}
+			part.add(key);
+		}
+		return new ArrayList<List<K>>(parts.values());
+	}
+
+	private static <K> K root(Map<K, K> parents, K key) {
+		K parent = parents.get(key);
+		if (parent.equals(key)) return key;
+		K root = root(parents, parent);
+		parents.put(key, root);
+		return root;
+	}
+
+	/**
+	 * topological order of the group with dependencies first
+	 */
+	private List<Unit> order(List<Unit> group) {
+		Set<Unit> done = new LinkedHashSet<Unit>();
+		boolean progress = true;
+		while (progress && done.size() < group.size()) {
+			progress = false;
+			for (Unit unit : group) {
+				if (!done.contains(unit) && done.containsAll(unit.dependencies)) {
+					done.add(unit);
+					progress = true;
+				}
+			}
+		}
+		// what is left is in a cycle
+		done.addAll(group);
+		return new ArrayList<Unit>(done);
+	}
+
+	/**
+	 * load all of the units of the group into the editing domain of the first one
+	 */
+	private void share(List<Unit> group) {
+		TransactionalEditingDomain domain = group.get(0).domain;
+		for (Unit unit : group) {
+			if (unit.domain == domain) continue;
+			unit.domain.dispose();
+			unit.domain = domain;
+			unit.component = loadComponent(domain, unit.uri);
+		}
+	}
+
+	/**
+	 * Loads the machine or context of the resource into the editing domain with EMFRodinDB,
+	 * or directly as an EMF resource if it is not a Rodin file of the workspace.
+	 * A component that is already loaded in the editing domain is not loaded again.
+	 *
+	 * @return the component or null if the resource does not hold a machine or context
+	 */
+	private static EventBNamedCommentedComponentElement loadComponent(TransactionalEditingDomain domain, URI uri) {
+		IRodinFile file = uri.isPlatformResource()?
+				RodinCore.valueOf(ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(uri.toPlatformString(true)))) : null;
+		EObject root;
+		if (file != null) {
+			root = new EMFRodinDB(domain).loadEventBComponent(file.getRoot());
+		} else {
+			Resource resource = domain.getResourceSet().getResource(uri, true);
+			root = resource.getContents().isEmpty()? null : resource.getContents().get(0);
+		}
+		return root instanceof Machine || root instanceof Context? (EventBNamedCommentedComponentElement) root : null;
+	}
+
+	/**
+	 * translate the component of one unit, as a dry run if a listener is given.
+	 * The translation context of the unit is released from the worker thread afterwards but kept open until the end of the batch.
+	 */
+	private void translate(TranslatorFactory factory, Unit unit, DryRun.Listener dryRun) {
+		long start = System.currentTimeMillis();
+		if (TranslationContext.join(unit) == null) {
+			TranslationContext.begin(unit);
+		}
+		if (dryRun != null) DryRun.begin(unit.uri, dryRun);
+		try {
+			if (!factory.canTranslate(commandId, unit.component.eClass())) {
+				unit.status.status = new Status(IStatus.WARNING, pluginID, noTranslatorMessage);
+				return;
+			}
+			IStatus status = factory.translate(unit.domain, unit.component, commandId, new NullProgressMonitor());
+			unit.status.status = status == null? Status.OK_STATUS : status;
+			if (unit.status.status.isOK()) TranslationResultCache.translationSucceeded();
+		} catch (Exception e) {
+			unit.status.status = new Status(IStatus.ERROR, pluginID, translationFailedMessage, e);
+		} finally {
+			TranslationContext.release();
+			DryRun.end();
+			unit.status.time += System.currentTimeMillis() - start;
+		}
+	}
+
+	/**
+	 * Works out which resources each of the groups has changed.
+	 * The preparation of each group is timed and counted in the translation context of the last unit of the group.
+	 *
+	 * @return the save report of each group, in the order of the groups
+	 */
+	private Map<List<Unit>, ResourceSnapshots.SaveReport> prepare(List<List<Unit>> groups) throws InterruptedException {
+		Map<List<Unit>, ResourceSnapshots.SaveReport> reports = new LinkedHashMap<List<Unit>, ResourceSnapshots.SaveReport>();
+		for (List<Unit> group : groups) {
+			TransactionalEditingDomain domain = group.get(0).domain;
+			Timer timer = startSave(group);
+			try {
+				ResourceSnapshots.SaveReport report = ResourceSnapshots.of(domain.getResourceSet()).prepare(domain);
+				reports.put(group, report);
+				Instrumentation.count(Counter.RESOURCES_SKIPPED, report.skipped);
+			} finally {
+				endSave(timer);
+			}
+		}
+		return reports;
+	}
+
+	/**
+	 * @return the URIs of the resources to be saved for each group
+	 */
+	private static Map<List<Unit>, Set<URI>> toSave(Map<List<Unit>, ResourceSnapshots.SaveReport> reports) {
+		Map<List<Unit>, Set<URI>> uris = new LinkedHashMap<List<Unit>, Set<URI>>();
+		for (Map.Entry<List<Unit>, ResourceSnapshots.SaveReport> entry : reports.entrySet()) {
+			Set<URI> toSave = new LinkedHashSet<URI>();
+			for (Resource resource : entry.getValue().toSave) {
+				toSave.add(resource.getURI());
+			}
+			uris.put(entry.getKey(), toSave);
+		}
+		return uris;
+	}
+
+	/**
+	 * Saves the changed resources of all of the groups in one Rodin runnable.
+	 * The save of each group is timed and counted in the translation context of the last unit of the group.
+	 *
+	 * @param reports - the save report of each group
+	 */
+	private IStatus save(final Map<List<Unit>, ResourceSnapshots.SaveReport> reports, final Result result, IProgressMonitor monitor) {
+		List<IFile> files = new ArrayList<IFile>();
+		for (ResourceSnapshots.SaveReport report : reports.values()) {
+			files.addAll(report.getFiles());
+			result.skipped += report.skipped;
+		}
+		try {
+			URI conflict = changedByMany(reports.values());
+			if (conflict != null) {
+				return new Status(IStatus.ERROR, pluginID, saveConflictMessage+conflict);
+			}
+			if (files.isEmpty()) {
+				// nothing was changed, so the results are already saved
+				for (List<Unit> group : reports.keySet()) {
+					saved(group);
+				}
+				return Status.OK_STATUS;
+			}
+			RodinCore.run(new IWorkspaceRunnable() {
+				public void run(final IProgressMonitor monitor) throws CoreException {
+					for (Map.Entry<List<Unit>, ResourceSnapshots.SaveReport> entry : reports.entrySet()) {
+						TransactionalEditingDomain domain = entry.getKey().get(0).domain;
+						Timer timer = startSave(entry.getKey());
+						try {
+							ResourceSnapshots.of(domain.getResourceSet()).save(domain, entry.getValue(), Collections.emptyMap());
+						} catch (IOException | InterruptedException e) {
+							throw new CoreException(new Status(IStatus.ERROR, pluginID, saveFailedMessage, e));
+						} finally {
+							result.written += entry.getValue().written;
+							Instrumentation.count(Counter.RESOURCES_SAVED, entry.getValue().written);
+							endSave(timer);
+						}
+						saved(entry.getKey());
+					}
+				}
+			}, EventBTranslateHandler.getSchedulingRule(files), monitor);
+			return Status.OK_STATUS;
+		} catch (CoreException e) {
+			return e.getStatus();
+		}
+	}
+
+	/**
+	 * @return the URI of a resource that is to be saved by more than one of the reports, or null if there is none
+	 */
+	private static URI changedByMany(Collection<ResourceSnapshots.SaveReport> reports) {
+		Set<URI> uris = new HashSet<URI>();
+		for (ResourceSnapshots.SaveReport report : reports) {
+			for (Resource resource : report.toSave) {
+				if (!uris.add(resource.getURI())) return resource.getURI();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * joins the translation context of the last unit of the group and starts timing (part of) its save
+	 */
+	private static Timer startSave(List<Unit> group) {
+		TranslationContext.join(group.get(group.size()-1));
+		return Instrumentation.start(Phase.SAVE);
+	}
+
+	private static void endSave(Timer timer) {
+		timer.end();
+		TranslationContext.release();
+	}
+
+	/**
+	 * tells the translation result cache that the successful translations of the group have been saved
+	 */
+	private static void saved(List<Unit> group) {
+		for (Unit unit : group) {
+			if (TranslationContext.join(unit) == null) continue;
+			try {
+				TranslationResultCache.translationSaved();
+			} finally {
+				TranslationContext.release();
+			}
+		}
+	}
+
+	/**
+	 * @return the URI of the resource holding the given element or null if it is not a suitable element
+	 */
+	private static URI getURI(Object element) {
+		if (element instanceof IInternalElement) {
+			element = ((IInternalElement) element).getRodinFile().getResource();
+		} else if (element instanceof IRodinFile) {
+			element = ((IRodinFile) element).getResource();
+		}
+		if (element instanceof IFile) {
+			return URI.createPlatformResourceURI(((IFile) element).getFullPath().toString(), true);
+		} else if (element instanceof EObject && ((EObject) element).eResource() != null) {
+			return EcoreUtil.getURI((EObject) element).trimFragment();
+		} else if (element instanceof Resource) {
+			return ((Resource) element).getURI();
+		}
+		return null;
+	}
+}
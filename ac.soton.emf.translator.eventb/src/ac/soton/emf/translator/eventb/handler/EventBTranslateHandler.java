@@ -16,9 +16,16 @@
  */
 package ac.soton.emf.translator.eventb.handler;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IFile;
-import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceRuleFactory;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -26,14 +33,21 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.resource.Resource;
-import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eventb.emf.persistence.EMFRodinDB;
-import org.eventb.emf.persistence.SaveResourcesCommand;
 import org.rodinp.core.IInternalElement;
 import org.rodinp.core.RodinCore;
 
+import ac.soton.emf.translator.eventb.adapter.DryRun;
+import ac.soton.emf.translator.eventb.adapter.TranslationResultCache;
+import ac.soton.emf.translator.eventb.instrumentation.Counter;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation;
+import ac.soton.emf.translator.eventb.instrumentation.Instrumentation.Timer;
+import ac.soton.emf.translator.eventb.instrumentation.Phase;
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
 import ac.soton.emf.translator.handler.TranslateHandler;
 
 
@@ -51,63 +65,211 @@ public class EventBTranslateHandler extends TranslateHandler {
 	
 	private final String pluginID = "ac.soton.emf.translator.eventb";
 	private final String errorMessage = "failed saving resources after translation";
+
+	/**
+	 * the resource sets for which getEObject has opened a translation context that has not been ended yet
+	 */
+	private final List<ResourceSet> openContexts = new ArrayList<ResourceSet>();
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * EventBTranslateHandler implementation:
+	 * Once the command is done, ends the translation contexts opened by getEObject that are still open
+	 * (i.e. when the translation failed or was cancelled before it was saved) and evicts their resource sets from the resource cache.
+	 */
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		try {
+			return super.execute(event);
+		} finally {
+			endContexts();
+		}
+	}
+
+	/**
+	 * For Rodin elements, reuses the component loaded by a previous translation if its file (and the files loaded with it)
+	 * have not changed since, otherwise loads the component with EMFRodinDB.
+	 * The content of the resources is recorded as they are loaded, so that save can skip the ones that are not changed.
+	 * Opens the translation context of the translation for the resource set of the component,
+	 * which the adapter joins when the translation is initialised and which is ended when the translation has been saved.
+	 * The context is opened before the load is timed, so that the load is counted in the metrics of the translation.
+	 * 
+	 * @see ResourceCache
+	 * @see ResourceSnapshots
+	 * @see TranslationContext
+	 */
 	@Override
 	protected EObject getEObject (Object obj){
-		if (obj instanceof IInternalElement){
-			return (new EMFRodinDB()).loadEventBComponent((IInternalElement)obj) ;
-		}else{
-			return super.getEObject(obj);
+		Timer timer = Instrumentation.start(Phase.LOAD);
+		try {
+			EObject component = obj instanceof IInternalElement? 
+					loadComponent((IInternalElement)obj)
+					: super.getEObject(obj);
+			openContext(component);
+			return component;
+		} finally {
+			timer.end();
+		}
+	}
+
+	/**
+	 * Local method to open the translation context for the resource set of the given component
+	 * and start collecting the metrics of its translation
+	 * 
+	 * @param component
+	 */
+	private void openContext(EObject component) {
+		ResourceSet resourceSet = component == null || component.eResource() == null? null : component.eResource().getResourceSet();
+		if (resourceSet != null) {
+			TranslationContext.begin(resourceSet);
+			Instrumentation.translationStarted(component);
+			synchronized (openContexts) {
+				openContexts.add(resourceSet);
+			}
+		}
+	}
+
+	/**
+	 * Local method to end the translation contexts opened by getEObject that are still open,
+	 * evicting their resource sets from the resource cache as their translations did not complete
+	 */
+	private void endContexts() {
+		List<ResourceSet> resourceSets;
+		synchronized (openContexts) {
+			resourceSets = new ArrayList<ResourceSet>(openContexts);
+			openContexts.clear();
+		}
+		for (ResourceSet resourceSet : resourceSets) {
+			TranslationContext.end(resourceSet);
+			ResourceCache.getDefault().evict(resourceSet);
 		}
 	}
+
+	/**
+	 * Local method to get the component of a Rodin element from the resource cache or EMFRodinDB
+	 * 
+	 * @param element
+	 * @return the component
+	 */
+	private EObject loadComponent(IInternalElement element) {
+		IFile file = element.getRodinFile().getResource();
+		EObject component = file==null? null : ResourceCache.getDefault().checkout(file);
+		if (component == null) {
+			component = (new EMFRodinDB()).loadEventBComponent(element);
+		}
+		if (component != null && component.eResource() != null && component.eResource().getResourceSet() != null) {
+			ResourceSnapshots.of(component.eResource().getResourceSet());
+		}
+		return component;
+	}
 	
 	/**
-	 * Use the SaveResourcesCommand to persist emf resources
+	 * Persist the emf resources whose content has been changed by the translation.
+	 * Resources that are the same as their files are not written, so that Rodin does not rebuild them.
 	 * This must be done in a RodinCore runnable
+	 * The translation has finished by the time it is saved, so its translation context is ended once the save is done,
+	 * whether or not it succeeds (the save is counted in the metrics of the translation).
+	 * Once saved, the resources are kept in the resource cache for the next translation.
+	 * If the save fails, the resource set is evicted from the resource cache.
 	 * 
 	 * @param monitor
-	 * @throws ExecutionException 
+	 * @return a status reporting how many resources were written and how many were skipped
+	 * @throws CoreException if a resource could not be saved
+	 * @see ResourceSnapshots
 	 */
 	@Override
 	protected IStatus save(IProgressMonitor monitor) throws Exception {
-		// save all resources that have been modified	
-		final SaveResourcesCommand saveCommand = new SaveResourcesCommand(getEditingDomain());
-		if (saveCommand.canExecute()){
-			RodinCore.run(new IWorkspaceRunnable() {
-				public void run(final IProgressMonitor monitor) throws CoreException {
-					try {
-						saveCommand.execute(monitor, null);
-					} catch (ExecutionException e) {
-						IStatus status = new Status(IStatus.ERROR, pluginID , errorMessage , e);
-						throw new CoreException(status);
+		final TransactionalEditingDomain editingDomain = getEditingDomain();
+		final ResourceSet resourceSet = editingDomain.getResourceSet();
+		// the save may run on a different thread from the translation
+		TranslationContext.join(resourceSet);
+		Timer timer = Instrumentation.start(Phase.SAVE);
+		boolean saved = false;
+		try {
+			// save all resources that have been changed
+			final ResourceSnapshots snapshots = ResourceSnapshots.of(resourceSet);
+			final ResourceSnapshots.SaveReport report = snapshots.prepare(editingDomain);
+			if (!report.toSave.isEmpty()) {
+				RodinCore.run(new IWorkspaceRunnable() {
+					public void run(final IProgressMonitor monitor) throws CoreException {
+						try {
+							snapshots.save(editingDomain, report, Collections.emptyMap());
+						} catch (IOException | InterruptedException e) {
+							IStatus status = new Status(IStatus.ERROR, pluginID , errorMessage , e);
+							throw new CoreException(status);
+						}
 					}
-
-				}
-			}, getSchedulingRule(getEditingDomain().getResourceSet().getResources().toArray(new Resource[0])), monitor);
+				}, getSchedulingRule(report.getFiles()), monitor);
+			}
+			Instrumentation.count(Counter.RESOURCES_SAVED, report.written);
+			Instrumentation.count(Counter.RESOURCES_SKIPPED, report.skipped);
+			saved = true;
+			ResourceCache.getDefault().checkin(resourceSet);
+			monitor.done();
+			// record the result of the translation, now that it has been saved
+			TranslationResultCache.translationSucceeded();
+			TranslationResultCache.translationSaved();
+			return new Status(IStatus.OK, pluginID, report.toString());
+		} finally {
+			timer.end();
+			if (!saved) ResourceCache.getDefault().evict(resourceSet);
+			// the translation is complete, release its storage and indexes
+			TranslationContext.end(resourceSet);
+			TranslationContext.end();
+			synchronized (openContexts) {
+				openContexts.remove(resourceSet);
+			}
 		}
-		monitor.done();
-        return Status.OK_STATUS;
 	}
 	
-	private ISchedulingRule getSchedulingRule(Resource[] resources) {
-		if (resources.length==0){	
-			return null;
-		}else if (resources.length==1){
-			return WorkspaceSynchronizer.getFile(resources[0]);
-		}else {
-			IProject project = getProject(resources[0]);
-			for (Resource resource : resources) {
-				if (project != getProject(resource)){
-					return  ResourcesPlugin.getWorkspace().getRoot();
-				}
-			}
-			return project;
-		}
+	/**
+	 * Translates several components at the same time and saves the results together.
+	 * Components that refine, see or extend each other are translated in dependency order.
+	 * 
+	 * @param commandId - the id of the translation command
+	 * @param elements - the components to translate (Rodin elements, files, EMF components or resources)
+	 * @param maxThreads - the maximum number of translations to run at the same time
+	 * @param monitor
+	 * @return the status of each component and the overall throughput
+	 * @throws CoreException
+	 * @see BatchTranslation
+	 */
+	public BatchTranslation.Result translateAll(String commandId, Collection<?> elements, int maxThreads, IProgressMonitor monitor) throws CoreException {
+		return new BatchTranslation(commandId, maxThreads).run(elements, monitor);
+	}
+
+	/**
+	 * Translates many components as a dry run: nothing is changed or saved and the listener is told about each change
+	 * that the translations would make.
+	 * 
+	 * @param commandId - the id of the translation command
+	 * @param elements - the components to translate (Rodin elements, files, EMF components or resources)
+	 * @param maxThreads - the maximum number of translations to run at the same time
+	 * @param listener - told about each addition, removal and filtered out descriptor
+	 * @param monitor
+	 * @return the status of each component and the overall throughput
+	 * @throws CoreException
+	 * @see BatchTranslation#dryRun(Collection, DryRun.Listener, IProgressMonitor)
+	 */
+	public BatchTranslation.Result dryRunAll(String commandId, Collection<?> elements, int maxThreads, DryRun.Listener listener, IProgressMonitor monitor) throws CoreException {
+		return new BatchTranslation(commandId, maxThreads).dryRun(elements, listener, monitor);
 	}
 	
-	private IProject getProject(Resource resource) {
-		IFile file = WorkspaceSynchronizer.getFile(resource);
-		return file==null? null : file.getProject();
+	/**
+	 * Gets a scheduling rule that covers exactly the given files, so that jobs working on other files can carry on while they are saved.
+	 * Files that do not exist yet are covered by the rule for creating them.
+	 * 
+	 * @param files
+	 * @return the rule, or null if there are no files
+	 */
+	static ISchedulingRule getSchedulingRule(Collection<IFile> files) {
+		IResourceRuleFactory ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+		ISchedulingRule rule = null;
+		for (IFile file : files) {
+			rule = MultiRule.combine(rule, file.exists()? ruleFactory.modifyRule(file) : ruleFactory.createRule(file));
+		}
+		return rule;
 	}
 
 }
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
+import org.rodinp.core.IRodinFile;
+import org.rodinp.core.RodinCore;
+import org.rodinp.core.RodinDBException;
+
+/**
+ * <p>
+ * A cache of the Event-B components that were loaded for previous translations,
+ * so that a translation of a component that has not changed on disk can reuse the models already in memory.
+ * </p>
+ * <p>
+ * The resources are cached together with the resource set that they were loaded in (i.e. the editing domain of the translation)
+ * and the modification stamps of their files when they were saved.
+ * A resource set is checked out of the cache when it is reused, so that it is only ever used by one translation at a time,
+ * and is checked back in when that translation has been saved. A translation that fails is never checked back in,
+ * and the handler evicts its resource set in case it was.
+ * A resource set is only returned by a checkout if its editing domain has not been disposed and is not in the middle of a transaction,
+ * and if none of its files has been changed, either on disk (as shown by its modification stamp) or in the Rodin database
+ * (e.g. by an editor that has not saved it yet).
+ * The resource sets are evicted in least recently used order when the cache holds more than its capacity of files,
+ * and whenever any of their files is changed or removed in the workspace.
+ * </p>
+ *
+ * @author cfs
+ * @see EventBTranslateHandler#getEObject(Object)
+ */
+final class ResourceCache {
+
+	/**
+	 * the maximum number of files held in the default cache
+	 */
+	private static final int CAPACITY = 64;
+
+	private static ResourceCache instance = null;
+
+	/**
+	 * @return the cache used by the translate handler, which listens to changes in the workspace
+	 */
+	static synchronized ResourceCache getDefault() {
+		if (instance == null) {
+			instance = new ResourceCache(CAPACITY);
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance.listener, IResourceChangeEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	/**
+	 * The resources of one resource set, its editing domain and the modification stamps of their files
+	 */
+	private static final class Entry {
+		final ResourceSet resourceSet;
+		final TransactionalEditingDomain domain;
+		final Map<IFile, Resource> resources = new HashMap<IFile, Resource>();
+		final Map<IFile, Long> stamps = new HashMap<IFile, Long>();
+
+		Entry(ResourceSet resourceSet, TransactionalEditingDomain domain) {
+			this.resourceSet = resourceSet;
+			this.domain = domain;
+		}
+
+		/**
+		 * whether the editing domain is still the live domain of the resource set and is not left in a transaction
+		 */
+		boolean isLive() {
+			return TransactionUtil.getEditingDomain(resourceSet) == domain && domain.getResourceSet() == resourceSet
+					&& !(domain instanceof InternalTransactionalEditingDomain && ((InternalTransactionalEditingDomain) domain).getActiveTransaction() != null);
+		}
+
+		boolean isStale() {
+			if (!isLive()) return true;
+			for (Map.Entry<IFile, Long> stamp : stamps.entrySet()) {
+				Resource resource = resources.get(stamp.getKey());
+				if (!resource.isLoaded() || resource.isModified() || resource.getResourceSet() != resourceSet
+						|| stamp.getKey().getModificationStamp() != stamp.getValue().longValue()
+						|| hasUnsavedChanges(stamp.getKey())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * whether the buffer of the file in the Rodin database has changes that have not been saved to the file
+		 * (which EMFRodinDB would load, although the modification stamp of the file does not show them)
+		 */
+		private static boolean hasUnsavedChanges(IFile file) {
+			IRodinFile rodinFile = RodinCore.valueOf(file);
+			try {
+				return rodinFile != null && rodinFile.hasUnsavedChanges();
+			} catch (RodinDBException e) {
+				return true;
+			}
+		}
+	}
+
+	private final int capacity;
+
+	/**
+	 * entries by file, in least recently used order
+	 */
+	private final LinkedHashMap<IFile, Entry> entries = new LinkedHashMap<IFile, Entry>(16, 0.75f, true);
+
+	private final IResourceChangeListener listener = new IResourceChangeListener() {
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getDelta() == null) return;
+			final List<IFile> changed = new ArrayList<IFile>();
+			try {
+				event.getDelta().accept(new IResourceDeltaVisitor() {
+					@Override
+					public boolean visit(IResourceDelta delta) {
+						IResource resource = delta.getResource();
+						if (resource instanceof IFile) {
+							if (delta.getKind() != IResourceDelta.CHANGED || (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+								changed.add((IFile) resource);
+							}
+							return false;
+						}
+						return true;
+					}
+				});
+			} catch (CoreException e) {
+				clear();
+				return;
+			}
+			for (IFile file : changed) {
+				invalidate(file);
+			}
+		}
+	};
+
+	ResourceCache(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Takes the resource set holding the given file out of the cache.
+	 * It is only returned if its editing domain is still live and none of its files have changed since it was checked in.
+	 *
+	 * @param file
+	 * @return the root of the cached resource for the file or null if there is no up to date resource for it
+	 */
+	synchronized EObject checkout(IFile file) {
+		Entry entry = entries.get(file);
+		if (entry == null) return null;
+		remove(entry);
+		if (entry.isStale()) return null;
+		Resource resource = entry.resources.get(file);
+		return resource.getContents().isEmpty()? null : resource.getContents().get(0);
+	}
+
+	/**
+	 * Puts the machines and contexts of a resource set into the cache, recording the current modification stamps of their files.
+	 * This should only be done when the resources are the same as the files (e.g. just after they have been saved).
+	 * A resource set that does not belong to an editing domain is not cached.
+	 *
+	 * @param resourceSet
+	 */
+	synchronized void checkin(ResourceSet resourceSet) {
+		TransactionalEditingDomain domain = TransactionUtil.getEditingDomain(resourceSet);
+		if (domain == null) return;
+		Entry entry = new Entry(resourceSet, domain);
+		for (Resource resource : resourceSet.getResources()) {
+			if (!resource.isLoaded() || resource.getURI() == null) continue;
+			String extension = resource.getURI().fileExtension();
+			if (!"bum".equals(extension) && !"buc".equals(extension)) continue;
+			IFile file = WorkspaceSynchronizer.getFile(resource);
+			if (file == null || !file.exists() || resource.isModified()) return;
+			entry.resources.put(file, resource);
+			entry.stamps.put(file, file.getModificationStamp());
+		}
+		if (entry.resources.isEmpty() || entry.resources.size() > capacity) return;
+		for (IFile file : entry.resources.keySet()) {
+			Entry previous = entries.get(file);
+			if (previous != null) remove(previous);
+		}
+		for (IFile file : entry.resources.keySet()) {
+			entries.put(file, entry);
+		}
+		while (entries.size() > capacity) {
+			remove(entries.values().iterator().next());
+		}
+	}
+
+	/**
+	 * Evicts the resource set holding the given file
+	 *
+	 * @param file
+	 */
+	synchronized void invalidate(IFile file) {
+		Entry entry = entries.get(file);
+		if (entry != null) remove(entry);
+	}
+
+	/**
+	 * Evicts the given resource set (e.g. because a translation using it failed)
+	 *
+	 * @param resourceSet
+	 */
+	synchronized void evict(ResourceSet resourceSet) {
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+			if (it.next().resourceSet == resourceSet) it.remove();
+		}
+	}
+
+	synchronized void clear() {
+		entries.clear();
+	}
+
+	private void remove(Entry entry) {
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+			if (it.next() == entry) it.remove();
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.handler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
+
+import ac.soton.emf.translator.eventb.utils.ContentDigest;
+
+/**
+ * <p>
+ * Records the content digest of each resource of a resource set as it is loaded (and again when it is saved),
+ * so that a save after translation can skip the resources whose content the translation has not changed.
+ * Skipping them avoids re-serialising the Rodin files and the builds that writing them would trigger.
+ * </p>
+ * <p>
+ * A resource is skipped if its digest is the same as the recorded one.
+ * EMF also marks a new resource as loaded when it is first populated, and then notifies the change to its contents,
+ * so the recorded digest of a resource is dropped whenever its contents (i.e. its root elements) change after it has been loaded.
+ * Only a resource that has no recorded digest is compared with a fresh copy read from its file before it is skipped.
+ * A resource whose file does not exist or cannot be read is always saved.
+ * </p>
+ *
+ * @author cfs
+ * @see ContentDigest
+ * @see EventBTranslateHandler#save(org.eclipse.core.runtime.IProgressMonitor)
+ */
+final class ResourceSnapshots extends AdapterImpl {
+
+	/**
+	 * The resources to be written by a save, and the numbers of resources written and skipped
+	 */
+	static final class SaveReport {
+		final List<Resource> toSave = new ArrayList<Resource>();
+		private final List<String> newDigests = new ArrayList<String>();
+		int written = 0;
+		int skipped = 0;
+
+		/**
+		 * @return the files of the resources to be written
+		 */
+		List<IFile> getFiles() {
+			List<IFile> files = new ArrayList<IFile>();
+			for (Resource resource : toSave) {
+				IFile file = WorkspaceSynchronizer.getFile(resource);
+				if (file != null) files.add(file);
+			}
+			return files;
+		}
+
+		@Override
+		public String toString() {
+			return "saved "+written+" resources, skipped "+skipped+" unchanged";
+		}
+	}
+
+	private final Map<Resource, String> digests = Collections.synchronizedMap(new IdentityHashMap<Resource, String>());
+
+	/**
+	 * Gets the snapshots of a resource set, starting to record them if this has not been done already.
+	 * Resources that are already loaded are recorded straight away.
+	 *
+	 * @param resourceSet
+	 * @return the snapshots
+	 */
+	static synchronized ResourceSnapshots of(ResourceSet resourceSet) {
+		for (Adapter adapter : resourceSet.eAdapters()) {
+			if (adapter instanceof ResourceSnapshots) return (ResourceSnapshots) adapter;
+		}
+		ResourceSnapshots snapshots = new ResourceSnapshots();
+		resourceSet.eAdapters().add(snapshots);
+		for (Resource resource : resourceSet.getResources()) {
+			snapshots.watch(resource);
+		}
+		return snapshots;
+	}
+
+	private ResourceSnapshots() {
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		if (notification.getNotifier() instanceof ResourceSet
+				&& notification.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+			switch (notification.getEventType()) {
+			case Notification.ADD:
+				watch((Resource) notification.getNewValue());
+				break;
+			case Notification.ADD_MANY:
+				for (Object resource : (List<?>) notification.getNewValue()) {
+					watch((Resource) resource);
+				}
+				break;
+			case Notification.REMOVE:
+				forget((Resource) notification.getOldValue());
+				break;
+			case Notification.REMOVE_MANY:
+				for (Object resource : (List<?>) notification.getOldValue()) {
+					forget((Resource) resource);
+				}
+				break;
+			}
+		} else if (notification.getNotifier() instanceof Resource
+				&& notification.getFeatureID(Resource.class) == Resource.RESOURCE__IS_LOADED) {
+			Resource resource = (Resource) notification.getNotifier();
+			if (notification.getNewBooleanValue()) {
+				digests.put(resource, ContentDigest.of(resource.getContents()));
+			} else {
+				digests.remove(resource);
+			}
+		} else if (notification.getNotifier() instanceof Resource
+				&& notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS && !notification.isTouch()) {
+			// populated (or its roots replaced) since it was loaded or saved, the recorded digest cannot be trusted
+			digests.remove(notification.getNotifier());
+		}
+	}
+
+	private void watch(Resource resource) {
+		if (!resource.eAdapters().contains(this)) {
+			resource.eAdapters().add(this);
+		}
+		if (resource.isLoaded() && !digests.containsKey(resource)) {
+			digests.put(resource, ContentDigest.of(resource.getContents()));
+		}
+	}
+
+	private void forget(Resource resource) {
+		resource.eAdapters().remove(this);
+		digests.remove(resource);
+	}
+
+	/**
+	 * Finds the loaded, writable resources of the editing domain whose content differs from when they were loaded or last saved.
+	 *
+	 * @param editingDomain
+	 * @return a report listing the resources to be saved and counting the ones that are skipped
+	 * @throws InterruptedException if interrupted while waiting for exclusive access to the editing domain
+	 */
+	SaveReport prepare(final TransactionalEditingDomain editingDomain) throws InterruptedException {
+		final SaveReport report = new SaveReport();
+		editingDomain.runExclusive(new Runnable() {
+			@Override
+			public void run() {
+				for (Resource resource : editingDomain.getResourceSet().getResources()) {
+					if (!resource.isLoaded() || editingDomain.isReadOnly(resource)) continue;
+					String digest = ContentDigest.of(resource.getContents());
+					if (isUnchanged(resource, digest)) {
+						report.skipped++;
+					} else {
+						report.toSave.add(resource);
+						report.newDigests.add(digest);
+					}
+				}
+			}
+		});
+		return report;
+	}
+
+	/**
+	 * Saves the resources listed in the report.
+	 * This must be called when no write transaction is active (e.g. in a RodinCore runnable after the translation).
+	 *
+	 * @param editingDomain
+	 * @param report - prepared for the editing domain
+	 * @param options - save options
+	 * @throws IOException if a resource could not be saved
+	 * @throws InterruptedException if interrupted while waiting for exclusive access to the editing domain
+	 */
+	void save(TransactionalEditingDomain editingDomain, final SaveReport report, final Map<?, ?> options) throws IOException, InterruptedException {
+		final IOException[] failure = {null};
+		editingDomain.runExclusive(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < report.toSave.size(); i++) {
+						report.toSave.get(i).save(options);
+						digests.put(report.toSave.get(i), report.newDigests.get(i));
+						report.written++;
+					}
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+		});
+		if (failure[0] != null) throw failure[0];
+	}
+
+	/**
+	 * @param resource
+	 * @param digest - the digest of the current content of the resource
+	 * @return true if the resource has the same content as its file
+	 */
+	private boolean isUnchanged(Resource resource, String digest) {
+		ResourceSet resourceSet = resource.getResourceSet();
+		if (resource.getURI() == null || !resourceSet.getURIConverter().exists(resource.getURI(), null)) return false;
+		String recorded = digests.get(resource);
+		if (recorded != null) return recorded.equals(digest);
+		ResourceSet fresh = new ResourceSetImpl();
+		fresh.setResourceFactoryRegistry(resourceSet.getResourceFactoryRegistry());
+		fresh.setURIConverter(resourceSet.getURIConverter());
+		try {
+			Resource copy = fresh.getResource(resource.getURI(), true);
+			boolean unchanged = digest.equals(ContentDigest.of(copy.getContents()));
+			copy.unload();
+			return unchanged;
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+}
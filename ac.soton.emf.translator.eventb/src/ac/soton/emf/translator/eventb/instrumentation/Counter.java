@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+/**
+ * The things that are counted during a translation.
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public enum Counter {
+	/** translation descriptors given to the output filter */
+	DESCRIPTORS_PRODUCED,
+	/** translation descriptors rejected by the output filter */
+	DESCRIPTORS_FILTERED,
+	/** resources loaded by the adapter */
+	RESOURCES_LOADED,
+	/** resources written by the save */
+	RESOURCES_SAVED,
+	/** resources not written by the save because they were unchanged */
+	RESOURCES_SKIPPED
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eventb.emf.core.CorePackage;
+import org.eventb.emf.core.EventBNamed;
+import org.eventb.emf.core.EventBObject;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * <p>
+ * Times the phases of translations and counts what they do.
+ * The adapter and the translate handler report to this class; listeners can be added to be told about each phase
+ * and about each translation (with its totals) when it ends.
+ * When a JDK Flight Recorder recording is running, the phases and translations are also emitted as JFR events.
+ * </p>
+ * <p>
+ * Instrumentation is enabled only while there is a listener or a running recording.
+ * When it is disabled, starting a timer returns a shared do-nothing timer and counting returns straight away,
+ * so the cost is a single field read.
+ * </p>
+ * 
+ * @see Phase
+ * @see Counter
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public final class Instrumentation {
+
+	/**
+	 * Times one phase. Use as
+	 * <pre>
+	 * Timer timer = Instrumentation.start(Phase.SAVE);
+	 * try { ... } finally { timer.end(); }
+	 * </pre>
+	 */
+	public static final class Timer {
+
+		private static final Timer NONE = new Timer(null, null);
+
+		private final Phase phase;
+		private final Object event;
+		private final long start;
+
+		private Timer(Phase phase, Object event) {
+			this.phase = phase;
+			this.event = event;
+			this.start = phase == null? 0 : System.nanoTime();
+		}
+
+		/**
+		 * Ends the phase, reporting its time
+		 */
+		public void end() {
+			if (phase == null) return;
+			long nanos = System.nanoTime() - start;
+			if (event != null) {
+				JfrSupport.endPhase(event);
+			}
+			TranslationMetrics metrics = metrics();
+			if (metrics != null) {
+				metrics.phaseEnded(phase, nanos);
+			}
+			for (InstrumentationListener listener : listeners) {
+				listener.phaseEnded(phase, nanos);
+			}
+		}
+	}
+
+	private static final List<InstrumentationListener> listeners = new CopyOnWriteArrayList<InstrumentationListener>();
+
+	private static final boolean jfrAvailable;
+
+	private static volatile boolean recording = false;
+
+	private static volatile boolean enabled = false;
+
+	static {
+		boolean available;
+		try {
+			JfrSupport.watchRecordings(new Runnable() {
+				@Override
+				public void run() {
+					recording = JfrSupport.isRecording();
+					update();
+				}
+			});
+			recording = JfrSupport.isRecording();
+			available = true;
+		} catch (LinkageError e) {
+			// the jdk.jfr module is not available
+			available = false;
+		}
+		jfrAvailable = available;
+		update();
+	}
+
+	private Instrumentation() {
+	}
+
+	/**
+	 * @param listener - to be told about phases and translations on any thread
+	 */
+	public static void addListener(InstrumentationListener listener) {
+		listeners.add(listener);
+		update();
+	}
+
+	public static void removeListener(InstrumentationListener listener) {
+		listeners.remove(listener);
+		update();
+	}
+
+	/**
+	 * @return whether anything is listening (a listener or a Flight Recorder recording)
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts timing a phase
+	 * 
+	 * @param phase
+	 * @return the timer, which must be ended
+	 */
+	public static Timer start(Phase phase) {
+		if (!enabled) return Timer.NONE;
+		return new Timer(phase, jfrAvailable && recording? JfrSupport.beginPhase(phase) : null);
+	}
+
+	/**
+	 * Adds to a count of the translation running on the current thread
+	 * 
+	 * @param counter
+	 * @param n
+	 */
+	public static void count(Counter counter, long n) {
+		if (!enabled) return;
+		TranslationMetrics metrics = metrics();
+		if (metrics != null) {
+			metrics.count(counter, n);
+		}
+	}
+
+	/**
+	 * Starts collecting metrics for the translation whose context is bound to the current thread.
+	 * If metrics are already being collected in the context (e.g. since it was opened to load the source), they are kept.
+	 * 
+	 * @param sourceElement - the source element of the translation
+	 */
+	public static void translationStarted(Object sourceElement) {
+		if (!enabled) return;
+		TranslationContext context = TranslationContext.current();
+		if (context != null && context.getAttachment(Instrumentation.class) == null) {
+			Object component = sourceElement instanceof EventBObject?
+					((EventBObject) sourceElement).getContaining(CorePackage.Literals.EVENT_BNAMED_COMMENTED_COMPONENT_ELEMENT)
+					: sourceElement;
+			String name = component instanceof EventBNamed? ((EventBNamed) component).getName() : String.valueOf(component);
+			context.attach(Instrumentation.class, new TranslationMetrics(name));
+		}
+	}
+
+	/**
+	 * @return the metrics of the translation running on the current thread, or null if there are none
+	 */
+	public static TranslationMetrics metrics() {
+		TranslationContext context = TranslationContext.current();
+		return context == null? null : (TranslationMetrics) context.getAttachment(Instrumentation.class);
+	}
+
+	static void translationEnded(TranslationMetrics metrics) {
+		if (jfrAvailable && recording) {
+			JfrSupport.translation(metrics);
+		}
+		for (InstrumentationListener listener : listeners) {
+			listener.translationEnded(metrics);
+		}
+	}
+
+	private static void update() {
+		enabled = !listeners.isEmpty() || recording;
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+/**
+ * Told about the phases and translations that are instrumented.
+ * Listeners are called on the thread running the translation, so should return quickly.
+ * 
+ * @see Instrumentation#addListener(InstrumentationListener)
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public interface InstrumentationListener {
+
+	/**
+	 * A phase has ended
+	 * 
+	 * @param phase
+	 * @param nanos - the time the phase took in nanoseconds
+	 */
+	default void phaseEnded(Phase phase, long nanos) {
+	}
+
+	/**
+	 * A translation has ended
+	 * 
+	 * @param metrics - the times and counts of the translation
+	 */
+	default void translationEnded(TranslationMetrics metrics) {
+	}
+}
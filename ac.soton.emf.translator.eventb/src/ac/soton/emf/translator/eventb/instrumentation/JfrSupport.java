@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.Timespan;
+
+/**
+ * The JDK Flight Recorder events of the instrumentation.
+ * This is kept apart from Instrumentation so that nothing fails if the jdk.jfr module is not available.
+ * 
+ * @author cfs
+ *
+ */
+final class JfrSupport {
+
+	@Name("ac.soton.emf.translator.eventb.Phase")
+	@Label("Translation Phase")
+	@Category({"Event-B", "Translator"})
+	@Description("A timed phase of an Event-B translation")
+	static final class PhaseEvent extends Event {
+		@Label("Phase")
+		String phase;
+	}
+
+	@Name("ac.soton.emf.translator.eventb.Translation")
+	@Label("Translation")
+	@Category({"Event-B", "Translator"})
+	@Description("The totals of an Event-B translation")
+	static final class TranslationEvent extends Event {
+		@Label("Component")
+		String component;
+		@Label("Elapsed") @Timespan
+		long elapsed;
+		@Label("Initialise") @Timespan
+		long initialise;
+		@Label("Affected Resources") @Timespan
+		long affectedResources;
+		@Label("Output Filter") @Timespan
+		long outputFilter;
+		@Label("Get Position") @Timespan
+		long getPos;
+		@Label("Save") @Timespan
+		long save;
+		@Label("Descriptors Produced")
+		long descriptorsProduced;
+		@Label("Descriptors Filtered")
+		long descriptorsFiltered;
+		@Label("Resources Loaded")
+		long resourcesLoaded;
+		@Label("Resources Saved")
+		long resourcesSaved;
+		@Label("Resources Skipped")
+		long resourcesSkipped;
+	}
+
+	private JfrSupport() {
+	}
+
+	static void watchRecordings(final Runnable onChange) {
+		FlightRecorder.addListener(new FlightRecorderListener() {
+			@Override
+			public void recordingStateChanged(Recording recording) {
+				onChange.run();
+			}
+		});
+	}
+
+	/**
+	 * @return whether a recording is running (without starting the flight recorder if it is not)
+	 */
+	static boolean isRecording() {
+		if (!FlightRecorder.isInitialized()) return false;
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			if (recording.getState() == RecordingState.RUNNING) return true;
+		}
+		return false;
+	}
+
+	static Object beginPhase(Phase phase) {
+		PhaseEvent event = new PhaseEvent();
+		if (!event.isEnabled()) return null;
+		event.phase = phase.name();
+		event.begin();
+		return event;
+	}
+
+	static void endPhase(Object event) {
+		((PhaseEvent) event).commit();
+	}
+
+	static void translation(TranslationMetrics metrics) {
+		TranslationEvent event = new TranslationEvent();
+		if (!event.isEnabled()) return;
+		event.component = metrics.getComponent();
+		event.elapsed = metrics.getElapsedNanos();
+		event.initialise = metrics.getPhaseNanos(Phase.INITIALISE);
+		event.affectedResources = metrics.getPhaseNanos(Phase.AFFECTED_RESOURCES);
+		event.outputFilter = metrics.getPhaseNanos(Phase.OUTPUT_FILTER);
+		event.getPos = metrics.getPhaseNanos(Phase.GET_POS);
+		event.save = metrics.getPhaseNanos(Phase.SAVE);
+		event.descriptorsProduced = metrics.getCount(Counter.DESCRIPTORS_PRODUCED);
+		event.descriptorsFiltered = metrics.getCount(Counter.DESCRIPTORS_FILTERED);
+		event.resourcesLoaded = metrics.getCount(Counter.RESOURCES_LOADED);
+		event.resourcesSaved = metrics.getCount(Counter.RESOURCES_SAVED);
+		event.resourcesSkipped = metrics.getCount(Counter.RESOURCES_SKIPPED);
+		event.commit();
+	}
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+/**
+ * The phases of a translation that are timed.
+ * The time spent in the translator's rules is the elapsed time of the translation less the time of these phases.
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public enum Phase {
+	/** loading the source component (EventBTranslateHandler.getEObject) */
+	LOAD,
+	/** EventBTranslatorAdapter.initialiseAdapter */
+	INITIALISE,
+	/** EventBTranslatorAdapter.getAffectedResources */
+	AFFECTED_RESOURCES,
+	/** EventBTranslatorAdapter.outputFilter */
+	OUTPUT_FILTER,
+	/** EventBTranslatorAdapter.getPos */
+	GET_POS,
+	/** saving the resources (EventBTranslateHandler.save) */
+	SAVE
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.instrumentation;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * The times and counts of one translation.
+ * They are collected from when the adapter is initialised until the translation has been saved.
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public final class TranslationMetrics implements TranslationContext.Participant {
+
+	private final String component;
+	private final long start = System.nanoTime();
+	private long elapsed = -1;
+	private final long[] phaseNanos = new long[Phase.values().length];
+	private final long[] phaseCounts = new long[Phase.values().length];
+	private final long[] counts = new long[Counter.values().length];
+
+	TranslationMetrics(String component) {
+		this.component = component;
+	}
+
+	/**
+	 * @return the name of the component being translated
+	 */
+	public String getComponent() {
+		return component;
+	}
+
+	/**
+	 * @return the time from the start to the end of the translation in nanoseconds (or so far, if it has not ended)
+	 */
+	public long getElapsedNanos() {
+		return elapsed < 0? System.nanoTime() - start : elapsed;
+	}
+
+	/**
+	 * @param phase
+	 * @return the total time spent in the phase in nanoseconds
+	 */
+	public long getPhaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * @param phase
+	 * @return the number of times the phase was entered
+	 */
+	public long getPhaseCount(Phase phase) {
+		return phaseCounts[phase.ordinal()];
+	}
+
+	/**
+	 * @param counter
+	 * @return the count
+	 */
+	public long getCount(Counter counter) {
+		return counts[counter.ordinal()];
+	}
+
+	void phaseEnded(Phase phase, long nanos) {
+		phaseNanos[phase.ordinal()] += nanos;
+		phaseCounts[phase.ordinal()]++;
+	}
+
+	void count(Counter counter, long n) {
+		counts[counter.ordinal()] += n;
+	}
+
+	@Override
+	public void translationEnded() {
+		elapsed = System.nanoTime() - start;
+		Instrumentation.translationEnded(this);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(component).append(": ").append(getElapsedNanos() / 1000000).append(" ms");
+		for (Phase phase : Phase.values()) {
+			sb.append(", ").append(phase).append('=').append(getPhaseNanos(phase) / 1000000).append(" ms (").append(getPhaseCount(phase)).append(')');
+		}
+		for (Counter counter : Counter.values()) {
+			sb.append(", ").append(counter).append('=').append(getCount(counter));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ac.soton.emf.translator.eventb.internal.rules;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ac.soton.emf.translator.eventb.rules.ITranslatorStorage;
+
+/**
+* <p>
+ * The state of one translation.
+ * A context is bound to the thread that runs the translation,
+ * so that translations of independent components can run at the same time on different threads.
+ * The context holds the translation's storage (which the rules see through TranslatorStorage.getDefault())
+ * and anything else that participants need to keep for the duration of the translation.
+ * </p>
+ * <p>
+ * Whoever drives a translation (e.g. the translate handler) opens its context for an owner, typically the resource set
+ * of the translation, before the source is loaded and ends it once the result has been saved or the translation has failed.
+ * The adapter joins the context of the resource set of its source element when the translation is initialised,
+ * so the translation can run on a different thread from the one that opened the context,
+ * and the context can be ended from any thread.
+ * If no context has been opened for it, the adapter begins an unmanaged one of its own, which nobody ends:
+ * it lasts until the next context begins on the same thread, so nothing that watches or holds on to the model
+ * (e.g. an index kept up to date by an adapter of the model) may be kept in it (see isManaged()).
+ * </p>
+ *
+ * @author cfs
+ * @version
+ * @see TranslatorStorage#getDefault()
+ * @since
+ */
+public final class TranslationContext {
+
+	/**
+	 * Something kept in a context that needs to be told when the translation has ended
+	 */
+	public interface Participant {
+		void translationEnded();
+	}
+
+	private static final ThreadLocal<TranslationContext> current = new ThreadLocal<TranslationContext>();
+
+	/**
+	 * the contexts that are open for an owner (guarded by itself)
+	 */
+	private static final Map<Object, TranslationContext> opened = new IdentityHashMap<Object, TranslationContext>();
+
+	private final Object owner;
+	private final boolean managed;
+	private final ITranslatorStorage storage = new TranslatorStorage();
+	private final Map<Object, Object> attachments = new IdentityHashMap<Object, Object>();
+	private boolean started = false;
+	private volatile boolean ended = false;
+
+	private TranslationContext(Object owner, boolean managed) {
+		this.owner = owner;
+		this.managed = managed;
+	}
+
+	/**
+	 * Starts a new translation context on the current thread.
+	 * Any context that is still bound to the thread is ended first.
+	 *
+	 * @return the new context
+	 */
+	public static TranslationContext begin() {
+		return begin(null);
+	}
+
+	/**
+	 * Opens a new translation context for the given owner and binds it to the current thread.
+	 * Any context that is still bound to the thread, or open for the same owner, is ended first.
+	 *
+	 * @param owner - what the translation works on, compared by identity (e.g. its resource set), or null
+	 * @return the new context
+	 */
+	public static TranslationContext begin(Object owner) {
+		end();
+		TranslationContext context = new TranslationContext(owner, true);
+		if (owner != null) {
+			TranslationContext previous;
+			synchronized (opened) {
+				previous = opened.put(owner, context);
+			}
+			if (previous != null) previous.dispose();
+		}
+		current.set(context);
+		return context;
+	}
+
+	/**
+	 * Starts a new translation context on the current thread for a translation that nobody will end explicitly.
+	 * Any context that is still bound to the thread is ended first.
+	 * The context lasts until the next context begins on the thread.
+	 *
+	 * @return the new context
+	 * @see #isManaged()
+	 */
+	public static TranslationContext beginUnmanaged() {
+		end();
+		TranslationContext context = new TranslationContext(null, false);
+		current.set(context);
+		return context;
+	}
+
+	/**
+	 * Binds the context that is open for the given owner to the current thread.
+	 * A different context that is still bound to the thread is ended first.
+	 *
+	 * @param owner
+	 * @return the context, or null if there is no context open for the owner
+	 */
+	public static TranslationContext join(Object owner) {
+		if (owner == null) return null;
+		TranslationContext context;
+		synchronized (opened) {
+			context = opened.get(owner);
+		}
+		if (context == null) return null;
+		if (current() != context) {
+			end();
+			current.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Unbinds the context from the current thread without ending it, so that it can be joined from another thread
+	 */
+	public static void release() {
+		current.remove();
+	}
+
+	/**
+	 * @return the context of the translation running on the current thread or null if there is none
+	 */
+	public static TranslationContext current() {
+		TranslationContext context = current.get();
+		if (context != null && context.ended) {
+			// ended from another thread
+			current.remove();
+			return null;
+		}
+		return context;
+	}
+
+	/**
+	 * Ends the context bound to the current thread (if any), telling all its participants
+	 */
+	public static void end() {
+		TranslationContext context = current();
+		if (context != null) {
+			current.remove();
+			context.dispose();
+		}
+	}
+
+	/**
+	 * Ends the context that is open for the given owner (if any), whichever thread it is bound to.
+	 * It must not be in use by a running translation.
+	 *
+	 * @param owner
+	 */
+	public static void end(Object owner) {
+		if (owner == null) return;
+		TranslationContext context;
+		synchronized (opened) {
+			context = opened.remove(owner);
+		}
+		if (context != null) {
+			if (current.get() == context) current.remove();
+			context.dispose();
+		}
+	}
+
+	/**
+	 * Marks the start of a translation in this context
+	 *
+	 * @return false if a translation has already been started in this context
+	 */
+	public boolean startTranslation() {
+		if (started) return false;
+		started = true;
+		return true;
+	}
+
+	/**
+	 * @return whether the context will be ended by whoever drives the translation,
+	 * i.e. it has not been begun with beginUnmanaged(), so anything that watches the model may be kept in it until then
+	 */
+	public boolean isManaged() {
+		return managed;
+	}
+
+	/**
+	 * @return whether the context has ended
+	 */
+	public boolean isEnded() {
+		return ended;
+	}
+
+	/**
+	 * @return the storage for this translation
+	 */
+	public ITranslatorStorage getStorage() {
+		return storage;
+	}
+
+	/**
+	 * @param key - the owner of the attachment (compared by identity)
+	 * @return the object attached with the given key or null
+	 */
+	public Object getAttachment(Object key) {
+		return attachments.get(key);
+	}
+
+	/**
+	 * Attaches an object to this context. If it is a Participant it will be told when the context ends
+	 *
+	 * @param key - the owner of the attachment (compared by identity)
+	 * @param value
+	 */
+	public void attach(Object key, Object value) {
+		attachments.put(key, value);
+	}
+
+	private synchronized void dispose() {
+		if (ended) return;
+		ended = true;
+		if (owner != null) {
+			synchronized (opened) {
+				if (opened.get(owner) == this) opened.remove(owner);
+			}
+		}
+		List<Object> values = new ArrayList<Object>(attachments.values());
+		attachments.clear();
+		storage.reset();
+		for (Object value : values) {
+			if (value instanceof Participant) {
+				((Participant) value).translationEnded();
+			}
+		}
+	}
+}
@@ -21,27 +21,27 @@ import ac.soton.emf.translator.eventb.rules.ITranslatorStorage;
 
 /**
  * <p>
- *
+ * Storage for one translation.
+ * The default storage delegates to the storage of the translation that is running on the current thread
+ * (or, if there is none, to a storage that is shared by everything outside of a translation).
  * </p>
  *
  * @author htson
  * @version
- * @see
+ * @see TranslationContext
  * @since
  */
 public class TranslatorStorage implements ITranslatorStorage {
 
-	private static ITranslatorStorage instance;
-	
+	private static final ITranslatorStorage instance = new ContextStorage();
+
 	private Map<String, Object> storage;
-	
-	private TranslatorStorage() {
+
+	TranslatorStorage() {
 		storage = new HashMap<String, Object>();
 	}
-	
+
 	public static ITranslatorStorage getDefault() {
-		if (instance == null)
-			instance = new TranslatorStorage();
 		return instance;
 	}
 
@@ -60,8 +60,49 @@ public class TranslatorStorage implements ITranslatorStorage {
 	public void stash(String key, Object value) {
 		storage.put(key, value);
 	}
-	
+
 	public void reset() {
 		storage = new HashMap<String, Object>();
 	}
+
+	/**
+	 * The default storage, which delegates to the storage of the current translation context
+	 */
+	private static final class ContextStorage implements ITranslatorStorage {
+
+		private final ITranslatorStorage shared = new TranslatorStorage();
+
+		@Override
+		public Object fetch(String key) {
+			TranslationContext context = TranslationContext.current();
+			if (context != null) return context.getStorage().fetch(key);
+			synchronized (shared) {
+				return shared.fetch(key);
+			}
+		}
+
+		@Override
+		public void stash(String key, Object value) {
+			TranslationContext context = TranslationContext.current();
+			if (context != null) {
+				context.getStorage().stash(key, value);
+			} else {
+				synchronized (shared) {
+					shared.stash(key, value);
+				}
+			}
+		}
+
+		@Override
+		public void reset() {
+			TranslationContext context = TranslationContext.current();
+			if (context != null) {
+				context.getStorage().reset();
+			} else {
+				synchronized (shared) {
+					shared.reset();
+				}
+			}
+		}
+	}
 }
@@ -26,6 +26,9 @@ import ac.soton.emf.translator.eventb.internal.rules.TranslatorStorage;
 
 /**
  * a basis for rules that translate to event-B
+ * The instances of a translator's rules are shared by translations that run at the same time on different threads
+ * (e.g. in a batch translation), so a rule must not keep the state of a translation in its fields:
+ * anything that lasts beyond one call belongs in the storage.
  * @author cfs
  *
  */
@@ -53,6 +56,10 @@ public abstract class AbstractEventBGeneratorRule extends AbstractRule implement
 	 */
 	protected static final EReference orderedChildren = CorePackage.Literals.EVENT_BELEMENT__ORDERED_CHILDREN;
 
+	/**
+	 * storage of the translation that is running on the current thread
+	 * (each translation has its own storage which is reset when the translation is initialised)
+	 */
 	protected ITranslatorStorage storage = TranslatorStorage.getDefault();
 
 
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+
+package ac.soton.emf.translator.eventb.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Digests of the content of EMF models.
+ * Two models have the same digest if they have the same structure (each element is held in the same containment feature
+ * of the same parent, in the same order), the same attribute values (in the same order)
+ * and refer to elements with the same URIs. Derived and transient features are ignored.
+ * 
+ * @author cfs
+ * @since 1.0
+ */
+public class ContentDigest {
+
+	/**
+	 * @param roots
+	 * @return a digest of the given elements and everything they contain
+	 */
+	public static String of(EObject... roots) {
+		return of(Arrays.asList(roots));
+	}
+
+	/**
+	 * @param roots
+	 * @return a digest of the given elements and everything they contain
+	 */
+	public static String of(Collection<? extends EObject> roots) {
+		return of(roots, element -> false);
+	}
+
+	/**
+	 * @param roots
+	 * @param excluded - the contained elements to leave out, together with everything they contain (the roots are never left out)
+	 * @return a digest of the given elements and everything they contain, as if the excluded elements were not there
+	 * @since 1.0
+	 */
+	public static String of(Collection<? extends EObject> roots, Predicate<? super EObject> excluded) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (EObject root : roots) {
+			updateTree(digest, root, excluded);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * digests the element followed by, for each of its containment features that holds anything,
+	 * the name of the feature, the number of elements it holds and the digest of each of them,
+	 * so that an element moved to a different parent or feature changes the digest.
+	 * Excluded elements are neither counted nor digested.
+	 */
+	private static void updateTree(MessageDigest digest, EObject object, Predicate<? super EObject> excluded) {
+		update(digest, object);
+		for (EReference containment : object.eClass().getEAllContainments()) {
+			if (containment.isDerived() || containment.isTransient()) continue;
+			Object value = object.eGet(containment, false);
+			List<?> children = containment.isMany()? (List<?>) value : value == null? Collections.emptyList() : Collections.singletonList(value);
+			int count = 0;
+			for (Object child : children) {
+				if (!excluded.test((EObject) child)) count++;
+			}
+			if (count == 0) continue;
+			update(digest, containment.getName());
+			update(digest, Integer.toString(count));
+			for (Object child : children) {
+				if (!excluded.test((EObject) child)) updateTree(digest, (EObject) child, excluded);
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, EObject object) {
+		update(digest, object.eClass().getName());
+		for (EAttribute attribute : object.eClass().getEAllAttributes()) {
+			if (attribute.isDerived() || attribute.isTransient()) continue;
+			update(digest, attribute.getName());
+			update(digest, String.valueOf(object.eGet(attribute)));
+		}
+		for (EReference reference : object.eClass().getEAllReferences()) {
+			if (reference.isContainment() || reference.isContainer() || reference.isDerived() || reference.isTransient()) continue;
+			update(digest, reference.getName());
+			Object value = object.eGet(reference, false);
+			if (value instanceof List) {
+				for (Object target : (List<?>) value) {
+					update(digest, target instanceof EObject? EcoreUtil.getURI((EObject) target).toString() : String.valueOf(target));
+				}
+			} else {
+				update(digest, value instanceof EObject? EcoreUtil.getURI((EObject) value).toString() : String.valueOf(value));
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, String text) {
+		digest.update(text.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+}
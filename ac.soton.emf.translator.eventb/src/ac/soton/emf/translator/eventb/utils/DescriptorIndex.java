@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eventb.emf.core.EventBElement;
+import org.eventb.emf.core.EventBNamed;
+
+import ac.soton.emf.translator.TranslationDescriptor;
+
+/**
+ * <p>
+ * An index of a list of generation descriptors by parent, feature and identifier,
+ * for rules that look up many generated elements in the same list (see Find.generatedElement).
+ * </p>
+ * <p>
+ * The identifier of a descriptor is the name of its value if that is an EventBNamed, or the value itself if it is a String.
+ * Each descriptor is indexed under its own parent and feature and also with either or both of them as a wildcard,
+ * so a lookup with a null parent or feature is as quick as a fully specified one.
+ * A lookup returns the value of the first descriptor in the list that matches, which is the same as Find.generatedElement.
+ * </p>
+ * <p>
+ * The index can be built once and kept while descriptors are appended to the list:
+ * descriptors added since the last lookup are indexed before the next one.
+ * Descriptors are indexed by the identifier their value has when they are indexed,
+ * so a value should not be renamed after its descriptor has been looked up.
+ * If the list gets shorter, the index is rebuilt.
+ * </p>
+ *
+ * @see Find#generatedElement(DescriptorIndex, EventBElement, EStructuralFeature, String)
+ *
+ * @author cfs
+ * @since 1.0
+ */
+public final class DescriptorIndex {
+
+	/**
+	 * A parent, feature and identifier, where a null parent or feature stands for any
+	 */
+	private static final class Key {
+		final EObject parent;
+		final EStructuralFeature feature;
+		final String identifier;
+
+		Key(EObject parent, EStructuralFeature feature, String identifier) {
+			this.parent = parent;
+			this.feature = feature;
+			this.identifier = identifier;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return parent == other.parent && feature == other.feature && identifier.equals(other.identifier);
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(parent) * 31 + System.identityHashCode(feature)) * 31 + identifier.hashCode();
+		}
+	}
+
+	private final List<TranslationDescriptor> descriptors;
+
+	/**
+	 * the value of the first descriptor with each key
+	 */
+	private final Map<Key,Object> values = new HashMap<Key,Object>();
+
+	/**
+	 * the number of descriptors at the start of the list that have been indexed
+	 */
+	private int indexed = 0;
+
+	/**
+	 * Makes an index of the given list of descriptors, which will include any descriptors appended to the list later
+	 *
+	 * @param generatedElements
+	 */
+	public DescriptorIndex(List<TranslationDescriptor> generatedElements) {
+		this.descriptors = generatedElements;
+		update();
+	}
+
+	/**
+	 * Find, by name and matching parent and feature, a generated element
+	 * (parent and/or feature may be null if not required to be matched)
+	 *
+	 * @param parent (or null)
+	 * @param feature (or null)
+	 * @param identifier
+	 * @return the value of the first matching descriptor or null if there is none
+	 */
+	public Object generatedElement(EObject parent, EStructuralFeature feature, String identifier) {
+		update();
+		return identifier == null? null : values.get(new Key(parent, feature, identifier));
+	}
+
+	/**
+	 * Indexes any descriptors appended to the list since it was last indexed.
+	 * (This is done by each lookup so it is only needed to control when the work is done.)
+	 */
+	public void update() {
+		if (descriptors.size() < indexed) {
+			values.clear();
+			indexed = 0;
+		}
+		for (; indexed < descriptors.size(); indexed++) {
+			add(descriptors.get(indexed));
+		}
+	}
+
+	private void add(TranslationDescriptor descriptor) {
+		String identifier = identifierOf(descriptor.value);
+		if (identifier == null) return;
+		putIfAbsent(new Key(descriptor.parent, descriptor.feature, identifier), descriptor.value);
+		putIfAbsent(new Key(null, descriptor.feature, identifier), descriptor.value);
+		putIfAbsent(new Key(descriptor.parent, null, identifier), descriptor.value);
+		putIfAbsent(new Key(null, null, identifier), descriptor.value);
+	}
+
+	private void putIfAbsent(Key key, Object value) {
+		if (!values.containsKey(key)) values.put(key, value);
+	}
+
+	private static String identifierOf(Object value) {
+		return value instanceof EventBNamed? ((EventBNamed) value).getName()
+				: value instanceof String? (String) value
+				: null;
+	}
+}
@@ -36,11 +36,18 @@ public class Find {
 	
 /**
  * Find by name, an element in a list of EventBNamed elements
+ * During a translation, the elements of a long list that belongs to an EObject feature are indexed by name
+ * so that repeated lookups in the same list do not search it each time.
+ * 
+ * @see NameIndex
+ * 
  * @param collection
  * @param name
- * @return
+ * @return the first element in the list with the name or null if there is none
  */
 	public static EventBNamed named(EList<? extends EventBNamed> collection, String name){
+		NameIndex index = NameIndex.of(collection);
+		if (index != null) return index.get(name);
 		for (EventBNamed element : collection){
 			if (name.equals(element.getName())) return element;
 		}
@@ -70,6 +77,23 @@ public class Find {
 		return null;
 	}
 
+/**
+ * Find, by name and matching parent and feature, a generated element using an index of the generation descriptors
+ * (parent and/or feature may be null if not required to be matched).
+ * This gives the same result as generatedElement on the indexed list but does not search the list,
+ * so rules that make many lookups should build the index once and use this instead.
+ * 
+ * @param index - an index of the generation descriptors, which is updated with any descriptors appended since it was last used
+ * @param parent (or null)
+ * @param feature (or null)
+ * @param identifier
+ * @return the value of the first matching descriptor in the indexed list, or null if there is none
+ * @since 1.0
+ */
+	public static Object generatedElement(DescriptorIndex index, EventBElement parent, EStructuralFeature feature, String identifier) {
+		return index.generatedElement(parent, feature, identifier);
+	}
+
 	/**
 	 * find the containing Project for this element
 	 * 
@@ -14,14 +14,13 @@
 
 package ac.soton.emf.translator.eventb.utils;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
-import org.eclipse.emf.ecore.InternalEObject;
-import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eventb.emf.core.EventBElement;
 import org.eventb.emf.core.EventBNamedCommentedComponentElement;
 import org.eventb.emf.core.EventBNamedCommentedElement;
@@ -330,6 +329,9 @@ public class Make {
 	 * Constructs a reference to an element that will exist in the future. 
 	 * The component (which must be a machine or context) is used to construct
 	 * the URI of the proxy - so it must already be linked to a resource in the workspace.
+	 * The URI template for each component and element type is reused for the rest of the translation.
+	 * 
+	 * @see ProxyFactory
 	 * 
 	 * @param component - Machine or Context that will contain the element (must already be in a resource so that it has a full URI to its final resource)
 	 * @param proxy  - an EventB Element to be used as the proxy (use the relevant Factory to create a fresh element of the desired type)
@@ -338,24 +340,21 @@ public class Make {
 	 * @since 1.0
 	 */
 	public static EventBNamedCommentedElement proxyReference(EventBNamedCommentedComponentElement component, EventBNamedCommentedElement proxy, String name) {
-		//work out the name of the component type .. "Machine" or "Context"
-		String componentType;
-		if (component instanceof Machine) {
-			componentType = "Machine";
-		}else if (component instanceof Context) {
-			componentType = "Context";
-		}else
-			return proxy;
-		//work out the name of the element type
-		String elementType = proxy.eClass().getName();
-		//create a uri to reference the named element
-		URI uri = EcoreUtil.getURI(component);
-		String fragment = uri.fragment().replace("::"+componentType+"::","::"+elementType+"::")+"."+name;
-		uri = uri.trimFragment();
-		uri = uri.appendFragment(fragment);
-		//set the proxy uri
-		((InternalEObject)proxy).eSetProxyURI(uri);
-		return proxy;
+		return ProxyFactory.getDefault().proxyReference(component, proxy, name);
+	}
+
+	/**
+	 * Constructs references to several elements of the same type that will exist in the future.
+	 * The proxies are all made from one URI template (see proxyReference).
+	 * 
+	 * @param component - Machine or Context that will contain the elements (must already be in a resource so that it has a full URI to its final resource)
+	 * @param elementType - the EClass of the elements (e.g. MachinePackage.Literals.VARIABLE)
+	 * @param names - the names of the elements
+	 * @return a proxy for each name, in the same order
+	 * @since 1.0
+	 */
+	public static List<EventBNamedCommentedElement> proxyReferences(EventBNamedCommentedComponentElement component, EClass elementType, Collection<String> names) {
+		return ProxyFactory.getDefault().proxyReferences(component, elementType, names);
 	}
 	
 }
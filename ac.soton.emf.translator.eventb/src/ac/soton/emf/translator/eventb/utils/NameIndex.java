@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eventb.emf.core.CorePackage;
+import org.eventb.emf.core.EventBNamed;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * An index of the elements of an (owner, feature) list by name, used by Find.named.
+ *
+ * The index is attached to the owner of the list and to each of its elements as an EMF adapter,
+ * so that it is kept up to date as elements are added, removed and renamed.
+ * Like the linear search it replaces, it finds the first element in the list with a given name.
+ * While no two elements have the same name this is done incrementally. A change that could alter which of several
+ * elements with the same name comes first (and any change to the list other than a single addition or removal)
+ * invalidates the index so that it is rebuilt on its next use.
+ *
+ * Indexes are kept for the translation running on the current thread and are disposed when it ends.
+ *
+ * @see Find#named(org.eclipse.emf.common.util.EList, String)
+ *
+ * @author cfs
+ *
+ */
+final class NameIndex extends AdapterImpl {
+
+	/**
+	 * lists shorter than this are searched directly
+	 */
+	private static final int MIN_SIZE = 8;
+
+	/**
+	 * The name indexes of one translation
+	 */
+	private static final class Registry implements TranslationContext.Participant {
+		final Map<List<?>,NameIndex> indices = new IdentityHashMap<List<?>,NameIndex>();
+
+		@Override
+		public void translationEnded() {
+			for (NameIndex index : indices.values()) {
+				index.dispose();
+			}
+			indices.clear();
+		}
+	}
+
+	/**
+	 * Gets (creating it if necessary) the name index of the list for the translation running on the current thread,
+	 * or null if the list should be searched directly (no translation is running in a managed context, the list is short
+	 * or it is not a notifying feature list of an EObject)
+	 *
+	 * @param list
+	 * @return the name index or null
+	 */
+	static NameIndex of(List<?> list) {
+		if (list.size() < MIN_SIZE || !(list instanceof EStructuralFeature.Setting)) return null;
+		TranslationContext context = TranslationContext.current();
+		if (context == null || !context.isManaged()) return null;
+		Registry registry = (Registry) context.getAttachment(Registry.class);
+		if (registry == null) {
+			registry = new Registry();
+			context.attach(Registry.class, registry);
+		}
+		NameIndex index = registry.indices.get(list);
+		if (index == null) {
+			EObject owner = ((EStructuralFeature.Setting)list).getEObject();
+			EStructuralFeature feature = ((EStructuralFeature.Setting)list).getEStructuralFeature();
+			if (owner == null || feature == null || owner.eGet(feature) != list) return null;
+			index = new NameIndex(owner, feature);
+			registry.indices.put(list, index);
+		}
+		return index.owner.eDeliver()? index : null;
+	}
+
+	private final EObject owner;
+	private final EStructuralFeature feature;
+
+	/**
+	 * the first element in the list with each name
+	 */
+	private final Map<String,Object> byName = new HashMap<String,Object>();
+
+	/**
+	 * the names that more than one element of the list has
+	 */
+	private final Set<String> shared = new HashSet<String>();
+
+	private final Set<Notifier> trackedElements = Collections.newSetFromMap(new IdentityHashMap<Notifier,Boolean>());
+	private boolean valid = false;
+
+	private NameIndex(EObject owner, EStructuralFeature feature) {
+		this.owner = owner;
+		this.feature = feature;
+		owner.eAdapters().add(this);
+	}
+
+	/**
+	 * @param name
+	 * @return the first element in the list with the given name or null if there is none
+	 */
+	EventBNamed get(String name) {
+		validate();
+		return (EventBNamed) byName.get(name);
+	}
+
+	private void validate() {
+		if (valid) return;
+		reset();
+		for (Object element : (List<?>) owner.eGet(feature)) {
+			track(element);
+			String name = nameOf(element);
+			if (name == null) continue;
+			if (byName.containsKey(name)) {
+				shared.add(name);
+			} else {
+				byName.put(name, element);
+			}
+		}
+		valid = true;
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		if (!valid || notification.isTouch()) return;
+		if (notification.getNotifier() == owner) {
+			if (notification.getFeature() != feature) return;
+			switch (notification.getEventType()) {
+			case Notification.ADD :
+				track(notification.getNewValue());
+				named(notification.getNewValue(), nameOf(notification.getNewValue()));
+				break;
+			case Notification.REMOVE :
+				untrack(notification.getOldValue());
+				unnamed(notification.getOldValue(), nameOf(notification.getOldValue()));
+				break;
+			case Notification.MOVE :
+				if (!shared.isEmpty()) valid = false;
+				break;
+			default :
+				valid = false;
+			}
+		} else if (notification.getFeature() == CorePackage.Literals.EVENT_BNAMED__NAME
+				&& trackedElements.contains(notification.getNotifier())) {
+			unnamed(notification.getNotifier(), notification.getOldStringValue());
+			named(notification.getNotifier(), notification.getNewStringValue());
+		}
+	}
+
+	/**
+	 * updates the index for an element of the list that now has the given name
+	 */
+	private void named(Object element, String name) {
+		if (!valid || name == null) return;
+		if (byName.containsKey(name)) {
+			// which of them comes first depends on their positions
+			valid = false;
+		} else {
+			byName.put(name, element);
+		}
+	}
+
+	/**
+	 * updates the index for an element that is no longer in the list with the given name
+	 */
+	private void unnamed(Object element, String name) {
+		if (!valid || name == null) return;
+		if (shared.contains(name)) {
+			// another element with the name may now come first
+			valid = false;
+		} else if (byName.get(name) == element) {
+			byName.remove(name);
+		}
+	}
+
+	private static String nameOf(Object element) {
+		return element instanceof EventBNamed? ((EventBNamed) element).getName() : null;
+	}
+
+	private void track(Object element) {
+		if (element instanceof Notifier && trackedElements.add((Notifier)element)) {
+			((Notifier)element).eAdapters().add(this);
+		}
+	}
+
+	private void untrack(Object element) {
+		if (element instanceof Notifier && trackedElements.remove(element)) {
+			((Notifier)element).eAdapters().remove(this);
+		}
+	}
+
+	private void reset() {
+		for (Notifier element : trackedElements) {
+			element.eAdapters().remove(this);
+		}
+		trackedElements.clear();
+		byName.clear();
+		shared.clear();
+	}
+
+	/**
+	 * detaches the index from the owner and the elements of its list
+	 */
+	private void dispose() {
+		owner.eAdapters().remove(this);
+		reset();
+		valid = false;
+	}
+}
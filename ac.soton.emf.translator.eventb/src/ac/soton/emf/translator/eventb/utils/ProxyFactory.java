@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 University of Southampton.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    University of Southampton - initial API and implementation
+ *******************************************************************************/
+package ac.soton.emf.translator.eventb.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eventb.emf.core.EventBNamedCommentedComponentElement;
+import org.eventb.emf.core.EventBNamedCommentedElement;
+import org.eventb.emf.core.context.Context;
+import org.eventb.emf.core.machine.Machine;
+
+import ac.soton.emf.translator.eventb.internal.rules.TranslationContext;
+
+/**
+ * <p>
+ * Makes proxies that refer to elements that will exist in the future (see Make.proxyReference).
+ * </p>
+ * <p>
+ * The URI of a proxy is made from the URI of the machine or context that will contain the element,
+ * with the component type in its fragment replaced by the element type and the element name appended.
+ * The factory keeps this as a template (the resource URI and the fragment up to the name) for each component and element class,
+ * so that making many proxies of the same kind only appends names.
+ * A template is worked out again if the component has since been renamed, moved to another resource or contained elsewhere.
+ * </p>
+ * <p>
+ * The factory of the translation running on the current thread is kept with the translation and discarded at its end.
+ * A factory is not thread safe.
+ * </p>
+ *
+ * @see Make#proxyReference(EventBNamedCommentedComponentElement, EventBNamedCommentedElement, String)
+ *
+ * @author cfs
+ * @since 1.0
+ */
+public final class ProxyFactory {
+
+	/**
+	 * The proxy URI of the elements of one class in one component, without the element name
+	 */
+	private static final class Template {
+		final Resource resource;
+		final EObject container;
+		final String componentName;
+		final URI base;
+		final String fragmentPrefix;
+
+		Template(EventBNamedCommentedComponentElement component, String componentType, EClass elementType) {
+			resource = component.eResource();
+			container = component.eContainer();
+			componentName = component.getName();
+			URI uri = EcoreUtil.getURI(component);
+			base = uri.trimFragment();
+			fragmentPrefix = uri.fragment().replace("::"+componentType+"::","::"+elementType.getName()+"::")+".";
+		}
+
+		boolean isValid(EventBNamedCommentedComponentElement component) {
+			return component.eResource() == resource && component.eContainer() == container
+					&& (componentName == null? component.getName() == null : componentName.equals(component.getName()));
+		}
+
+		URI uri(String name) {
+			return base.appendFragment(fragmentPrefix+name);
+		}
+	}
+
+	/**
+	 * The templates of the element classes of one component
+	 */
+	private final Map<EventBNamedCommentedComponentElement, Map<EClass, Template>> templates =
+			new HashMap<EventBNamedCommentedComponentElement, Map<EClass, Template>>();
+
+	/**
+	 * Gets the proxy factory of the translation running on the current thread.
+	 * If there is no translation running, a new factory is returned, which the caller may keep for as long as it needs.
+	 *
+	 * @return a proxy factory
+	 */
+	public static ProxyFactory getDefault() {
+		TranslationContext context = TranslationContext.current();
+		if (context == null) return new ProxyFactory();
+		ProxyFactory factory = (ProxyFactory) context.getAttachment(ProxyFactory.class);
+		if (factory == null) {
+			factory = new ProxyFactory();
+			context.attach(ProxyFactory.class, factory);
+		}
+		return factory;
+	}
+
+	/**
+	 * Makes the given element a proxy for the named element of the same type in the given machine or context.
+	 * If the component is neither a machine nor a context, the element is returned unchanged.
+	 *
+	 * @param component - Machine or Context that will contain the element (must already be in a resource so that it has a full URI to its final resource)
+	 * @param proxy  - an EventB Element to be used as the proxy (use the relevant Factory to create a fresh element of the desired type)
+	 * @param name - the name of the element
+	 * @return the proxy
+	 */
+	public EventBNamedCommentedElement proxyReference(EventBNamedCommentedComponentElement component, EventBNamedCommentedElement proxy, String name) {
+		Template template = getTemplate(component, proxy.eClass());
+		if (template != null) {
+			((InternalEObject)proxy).eSetProxyURI(template.uri(name));
+		}
+		return proxy;
+	}
+
+	/**
+	 * Makes a proxy of the given class for each of the named elements in the given machine or context.
+	 * The proxies are made with one template.
+	 * If the component is neither a machine nor a context, the elements are made but are not proxies.
+	 *
+	 * @param component - Machine or Context that will contain the elements (must already be in a resource so that it has a full URI to its final resource)
+	 * @param elementType - the class of the elements, which must be a concrete subclass of EventBNamedCommentedElement
+	 * @param names - the names of the elements
+	 * @return the proxies, in the order of the names
+	 */
+	public List<EventBNamedCommentedElement> proxyReferences(EventBNamedCommentedComponentElement component, EClass elementType, Collection<String> names) {
+		Template template = getTemplate(component, elementType);
+		List<EventBNamedCommentedElement> proxies = new ArrayList<EventBNamedCommentedElement>(names.size());
+		for (String name : names) {
+			EventBNamedCommentedElement proxy = (EventBNamedCommentedElement) EcoreUtil.create(elementType);
+			if (template != null) {
+				((InternalEObject)proxy).eSetProxyURI(template.uri(name));
+			}
+			proxies.add(proxy);
+		}
+		return proxies;
+	}
+
+	/**
+	 * @param component
+	 * @param elementType
+	 * @return the template for elements of the class in the component or null if the component is neither a machine nor a context
+	 */
+	private Template getTemplate(EventBNamedCommentedComponentElement component, EClass elementType) {
+		//work out the name of the component type .. "Machine" or "Context"
+		String componentType;
+		if (component instanceof Machine) {
+			componentType = "Machine";
+		}else if (component instanceof Context) {
+			componentType = "Context";
+		}else
+			return null;
+		Map<EClass, Template> componentTemplates = templates.get(component);
+		if (componentTemplates == null) {
+			componentTemplates = new HashMap<EClass, Template>();
+			templates.put(component, componentTemplates);
+		}
+		Template template = componentTemplates.get(elementType);
+		if (template == null || !template.isValid(component)) {
+			template = new Template(component, componentType, elementType);
+			componentTemplates.put(elementType, template);
+		}
+		return template;
+	}
+}
@@ -31,6 +31,12 @@ public class Utils {
 	public static final String TRANSLATION_TARGET_KEY = "translationTarget";
 	public static final String INITIALISATION_EVENT_NAME   = "INITIALISATION";
 			
+	/**
+	 * resets the storage of the translation running on the current thread
+	 * and records the translation target component in it
+	 * 
+	 * @param translationTarget
+	 */
 	public static void resetStorage(Object translationTarget) {
 		storage.reset();
 		storage.stash(Utils.TRANSLATION_TARGET_KEY, translationTarget);